@@ -1,5 +1,6 @@
 plugins {
     application
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "org.faya.sensei"
@@ -58,4 +59,24 @@ dependencies {
 
 tasks.named<Test>("test") {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+jmh {
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    includes = listOf(providers.gradleProperty("jmhIncludes").getOrElse(".*"))
+}
+
+tasks.register<JavaExec>("movingAi") {
+    group = "benchmark"
+    description = "Runs the queries of a Moving AI scenario, pass the map and scenario files with --args."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "org.faya.sensei.benchmark.MovingAiRunner"
+}
+
+tasks.register<JavaExec>("loadTest") {
+    group = "benchmark"
+    description = "Runs concurrent path clients on a shared grid, pass key=value options with --args."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "org.faya.sensei.benchmark.LoadTest"
+}
@@ -0,0 +1,114 @@
+package org.faya.sensei.benchmark;
+
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.GraphGenerator;
+import org.faya.sensei.graph.MeshGraph;
+import org.faya.sensei.graph.MeshLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Graph builds of {@link GraphBuilder}, grids for every storage and meshes
+ * on the calling thread or on the common pool. Grids and meshes have their
+ * own state, so each build only runs for the parameters it uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphBuilderBenchmark {
+
+    /**
+     * The meshes built.
+     */
+    public enum Mesh {
+        /**
+         * The {@code navmesh.glb} resource.
+         */
+        NAVMESH,
+        /**
+         * A flat 512 by 512 vertex plane, two triangles per quad.
+         */
+        PLANE
+    }
+
+    @State(Scope.Thread)
+    public static class GridState {
+
+        @Param({"BITSET", "OFF_HEAP", "CHUNKED"})
+        public GraphBuilder.GridStorage storage;
+
+        private GraphBuilder builder;
+
+        @Setup
+        public void setUp() {
+            builder = new GraphBuilder().gridStorage(storage);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class MeshState {
+
+        @Param({"NAVMESH", "PLANE"})
+        public Mesh mesh;
+
+        private float[] positions;
+        private int[] indices;
+
+        @Setup
+        public void setUp() {
+            final MeshGraph graph = switch (mesh) {
+                case NAVMESH -> {
+                    try (final MeshLoader loader = new MeshLoader()) {
+                        yield new GraphBuilder().build(MeshLoader.getMesh(loader.loadResource("navmesh.glb"), 0));
+                    }
+                }
+                case PLANE -> new GraphGenerator().plane(511, 511);
+            };
+
+            final double[] position = new double[3];
+            positions = new float[graph.getVertexCount() * 3];
+            for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+                graph.getPosition(vertex, position);
+                for (int axis = 0; axis < 3; axis++) positions[vertex * 3 + axis] = (float) position[axis];
+            }
+            indices = new int[graph.getTriangleCount() * 3];
+            for (int triangle = 0; triangle < graph.getTriangleCount(); triangle++) {
+                for (int corner = 0; corner < 3; corner++) indices[triangle * 3 + corner] = graph.getTriangleVertex(triangle, corner);
+            }
+        }
+    }
+
+    @Benchmark
+    public AbstractGridGraph buildGrid(final GridState state) {
+        return state.builder.build(1024, 1024);
+    }
+
+    @Benchmark
+    public AbstractGridGraph buildVolume(final GridState state) {
+        return state.builder.build(128, 128, 128);
+    }
+
+    @Benchmark
+    public MeshGraph buildMesh(final MeshState state) {
+        return new GraphBuilder().build(state.positions, state.indices);
+    }
+
+    @Benchmark
+    public MeshGraph buildMeshParallel(final MeshState state) {
+        return new GraphBuilder().parallel().build(state.positions, state.indices);
+    }
+}
@@ -0,0 +1,72 @@
+package org.faya.sensei.benchmark;
+
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphGenerator;
+import org.faya.sensei.graph.MeshGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Procedural graphs of {@link GraphGenerator} with millions of nodes, on the
+ * calling thread or on the common pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class GraphGeneratorBenchmark {
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private GraphGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new GraphGenerator().seed(Grids.SEED);
+        if (parallel) generator.parallel();
+    }
+
+    @Benchmark
+    public AbstractGridGraph obstacles() {
+        return generator.obstacles(2048, 2048, 0.2);
+    }
+
+    @Benchmark
+    public AbstractGridGraph maze() {
+        return generator.maze(2049, 2049);
+    }
+
+    @Benchmark
+    public AbstractGridGraph caves() {
+        return generator.caves(2048, 2048, 0.45, 4);
+    }
+
+    @Benchmark
+    public AbstractGridGraph rooms() {
+        return generator.rooms(2048, 2048, 2048);
+    }
+
+    @Benchmark
+    public AbstractGridGraph caverns() {
+        return generator.caverns(256, 256, 256, 0.45, 3);
+    }
+
+    @Benchmark
+    public MeshGraph navmesh() {
+        return generator.navmesh(1024, 1024, 0.1);
+    }
+}
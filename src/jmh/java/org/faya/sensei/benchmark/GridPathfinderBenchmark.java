@@ -0,0 +1,93 @@
+package org.faya.sensei.benchmark;
+
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.faya.sensei.pathfinding.LazyThetaStarPathfinder;
+import org.faya.sensei.pathfinding.ThetaStarPathfinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path searches on square grids, each invocation runs the next query of a
+ * fixed seeded batch. Every algorithm runs with a heuristic that is admissible
+ * for its edge costs: the grid steps of A* cost 1 so Manhattan holds, Theta*
+ * shortcuts are Euclidean lengths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GridPathfinderBenchmark {
+
+    private static final int QUERIES = 256;
+
+    /**
+     * The pathfinders compared on grids, {@code ASTAR_SMOOTHED} shortens the
+     * A* path with a greedy line of sight pass.
+     */
+    public enum Algorithm {
+        ASTAR(Heuristic.MANHATTAN),
+        ASTAR_EUCLIDEAN(Heuristic.EUCLIDEAN),
+        ASTAR_SMOOTHED(Heuristic.MANHATTAN),
+        THETA_STAR(Heuristic.EUCLIDEAN),
+        LAZY_THETA_STAR(Heuristic.EUCLIDEAN);
+
+        private final Heuristic heuristic;
+
+        Algorithm(final Heuristic heuristic) {
+            this.heuristic = heuristic;
+        }
+    }
+
+    @Param({"OPEN", "MAZE", "RANDOM", "CAVES", "ROOMS"})
+    public Grids.Layout layout;
+
+    @Param({"256"})
+    public int size;
+
+    @Param({"ASTAR", "ASTAR_EUCLIDEAN", "ASTAR_SMOOTHED", "THETA_STAR", "LAZY_THETA_STAR"})
+    public Algorithm algorithm;
+
+    private AbstractGridGraph grid;
+    private AStarPathfinder pathfinder;
+    private int[] queries;
+    private int[] path;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        grid = Grids.grid(layout, size);
+
+        pathfinder = switch (algorithm) {
+            case ASTAR, ASTAR_EUCLIDEAN, ASTAR_SMOOTHED -> new AStarPathfinder(grid, algorithm.heuristic);
+            case THETA_STAR -> new ThetaStarPathfinder(grid, algorithm.heuristic);
+            case LAZY_THETA_STAR -> new LazyThetaStarPathfinder(grid, algorithm.heuristic);
+        };
+        queries = Grids.queries(grid, grid::isTraversable, QUERIES);
+        path = new int[grid.getNodeCount()];
+    }
+
+    @Benchmark
+    public int findPath() {
+        final int query = next;
+        next = (next + 2) % queries.length;
+
+        final int length = pathfinder.findPath(queries[query], queries[query + 1], path);
+
+        return algorithm == Algorithm.ASTAR_SMOOTHED ? grid.smoothPath(path, length) : length;
+    }
+}
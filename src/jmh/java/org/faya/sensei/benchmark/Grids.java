@@ -0,0 +1,151 @@
+package org.faya.sensei.benchmark;
+
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.GraphGenerator;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Heuristic;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * Seeded grids and queries shared by the benchmarks, the same parameters
+ * always give the same maps so runs can be compared.
+ */
+final class Grids {
+
+    static final long SEED = 42;
+
+    /**
+     * The layouts a benchmark grid can have.
+     */
+    enum Layout {
+        /**
+         * No obstacle.
+         */
+        OPEN,
+        /**
+         * A perfect maze carved on the odd cells, one corridor between any two
+         * cells.
+         */
+        MAZE,
+        /**
+         * Every cell blocked with a probability of one in five.
+         */
+        RANDOM,
+        /**
+         * Caves smoothed by a cellular automaton.
+         */
+        CAVES,
+        /**
+         * Rooms linked by corridors, one room per 8 cells of side.
+         */
+        ROOMS
+    }
+
+    /**
+     * The layouts a benchmark volume can have.
+     */
+    enum VolumeLayout {
+        /**
+         * Every cell blocked with a probability of one in five, the worst case
+         * for an octree since free space is cut into small cubes.
+         */
+        RANDOM,
+        /**
+         * Caverns smoothed by a cellular automaton.
+         */
+        CAVERNS,
+        /**
+         * Open space split by three walls along x, each with one door.
+         */
+        WALLS
+    }
+
+    private Grids() { }
+
+    /**
+     * Builds a square grid.
+     *
+     * @param layout The layout.
+     * @param size   The width and height.
+     * @return The graph instance.
+     */
+    static AbstractGridGraph grid(final Layout layout, final int size) {
+        final GraphGenerator generator = new GraphGenerator().seed(SEED);
+
+        return switch (layout) {
+            case OPEN -> new GraphBuilder().build(size, size);
+            case MAZE -> generator.maze(size, size);
+            case RANDOM -> generator.obstacles(size, size, 0.2);
+            case CAVES -> generator.caves(size, size, 0.45, 4);
+            case ROOMS -> generator.rooms(size, size, size / 8);
+        };
+    }
+
+    /**
+     * Builds a cube grid.
+     *
+     * @param layout The layout.
+     * @param size   The width, height and depth.
+     * @return The graph instance.
+     */
+    static AbstractGridGraph volume(final VolumeLayout layout, final int size) {
+        final GraphGenerator generator = new GraphGenerator().seed(SEED);
+
+        return switch (layout) {
+            case RANDOM -> generator.obstacles(size, size, size, 0.2);
+            case CAVERNS -> generator.caverns(size, size, size, 0.45, 8);
+            case WALLS -> walls(size);
+        };
+    }
+
+    private static AbstractGridGraph walls(final int size) {
+        final AbstractGridGraph volume = new GraphBuilder().build(size, size, size);
+        final Random random = new Random(SEED);
+        final int door = Math.max(1, size / 8);
+
+        for (int wall = 1; wall <= 3; wall++) {
+            final int x = size * wall / 4;
+            final int doorY = random.nextInt(size - door + 1), doorZ = random.nextInt(size - door + 1);
+            for (int z = 0; z < size; z++) {
+                for (int y = 0; y < size; y++) {
+                    final boolean inDoor = y >= doorY && y < doorY + door && z >= doorZ && z < doorZ + door;
+                    if (!inDoor) volume.setTraversable(x, y, z, false);
+                }
+            }
+        }
+
+        return volume;
+    }
+
+    /**
+     * Picks start and goal pairs that are connected, checked once with A*.
+     *
+     * @param graph The graph.
+     * @param open  The nodes a query may start or end on.
+     * @param count The number of pairs.
+     * @return The pairs, start then goal.
+     */
+    static int[] queries(final IIndexedGraph graph, final IntPredicate open, final int count) {
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.EUCLIDEAN);
+        final Random random = new Random(SEED);
+        final int[] path = new int[0];
+        final int[] queries = new int[count * 2];
+
+        for (int i = 0; i < count; ) {
+            final int start = random.nextInt(graph.getNodeCount());
+            final int goal = random.nextInt(graph.getNodeCount());
+            if (start == goal || !open.test(start) || !open.test(goal)) continue;
+            if (pathfinder.findPath(start, goal, path) == 0) continue;
+
+            queries[i * 2] = start;
+            queries[i * 2 + 1] = goal;
+            i++;
+        }
+
+        return queries;
+    }
+}
@@ -0,0 +1,236 @@
+package org.faya.sensei.benchmark;
+
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.faya.sensei.pathfinding.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of concurrent clients searching one shared grid. Every client
+ * owns its pathfinder and issues queries at its share of a target rate, while
+ * a churn thread keeps blocking and reopening cells. Queries mix short, medium
+ * and long distances.
+ * <p>
+ * Latency is measured from the time a query was scheduled rather than from
+ * the time it started, so a client falling behind its rate shows up in the
+ * percentiles instead of hiding in a lower throughput. A rate of 0 runs every
+ * client as fast as it can.
+ *
+ * <pre>
+ * gradle loadTest --args="clients=8 rate=4000 seconds=30 size=1024 layout=CAVES churn=200"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final int SHORT = 16;
+    private static final int MEDIUM = 128;
+    private static final int CHURN_CELLS = 256;
+
+    private final Options options;
+    private final AbstractGridGraph grid;
+
+    private final Histogram latency = new Histogram();
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder found = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder churned = new LongAdder();
+
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    /**
+     * The load test settings, given on the command line as {@code key=value}.
+     *
+     * @param clients The number of concurrent clients.
+     * @param rate    The total target queries per second, 0 for no limit.
+     * @param warmup  The seconds run before measuring.
+     * @param seconds The seconds measured.
+     * @param size    The width and height of the grid.
+     * @param layout  The layout of the grid.
+     * @param churn   The cells blocked or reopened per second.
+     */
+    public record Options(int clients, double rate, int warmup, int seconds, int size, Grids.Layout layout, double churn) {
+
+        /**
+         * Parses the options, missing keys keep their default.
+         *
+         * @param args The {@code key=value} arguments.
+         * @return The options.
+         */
+        public static Options parse(final String[] args) {
+            int clients = Runtime.getRuntime().availableProcessors(), warmup = 5, seconds = 20, size = 512;
+            double rate = 0.0, churn = 100.0;
+            Grids.Layout layout = Grids.Layout.CAVES;
+
+            for (final String arg : args) {
+                final int split = arg.indexOf('=');
+                if (split < 0) throw new IllegalArgumentException("Expected key=value, got " + arg + ".");
+
+                final String value = arg.substring(split + 1);
+                switch (arg.substring(0, split)) {
+                    case "clients" -> clients = Integer.parseInt(value);
+                    case "rate" -> rate = Double.parseDouble(value);
+                    case "warmup" -> warmup = Integer.parseInt(value);
+                    case "seconds" -> seconds = Integer.parseInt(value);
+                    case "size" -> size = Integer.parseInt(value);
+                    case "layout" -> layout = Grids.Layout.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "churn" -> churn = Double.parseDouble(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + arg + ".");
+                }
+            }
+
+            return new Options(clients, rate, warmup, seconds, size, layout, churn);
+        }
+    }
+
+    private LoadTest(final Options options) {
+        this.options = options;
+        this.grid = Grids.grid(options.layout(), options.size());
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        final Options options = Options.parse(args);
+        System.out.printf(Locale.ROOT, "%d clients, %s, %dx%d %s, churn %.0f cells/s%n", options.clients(),
+                options.rate() > 0 ? String.format(Locale.ROOT, "%.0f queries/s", options.rate()) : "unlimited",
+                options.size(), options.size(), options.layout(), options.churn());
+
+        new LoadTest(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        final Thread[] threads = new Thread[options.clients() + 1];
+        for (int i = 0; i < options.clients(); i++) {
+            final int index = i;
+            threads[i] = new Thread(() -> client(index), "load-client-" + i);
+        }
+        threads[options.clients()] = new Thread(this::churn, "load-churn");
+        for (final Thread thread : threads) thread.start();
+
+        TimeUnit.SECONDS.sleep(options.warmup());
+        measuring = true;
+        final long began = System.nanoTime();
+        TimeUnit.SECONDS.sleep(options.seconds());
+        running = false;
+        final double elapsed = (System.nanoTime() - began) / 1e9;
+        for (final Thread thread : threads) thread.join();
+
+        final Histogram.Snapshot snapshot = latency.snapshot();
+        final long count = queries.sum();
+        System.out.printf(Locale.ROOT, "queries     %d, %d found, %d cells churned%n", count, found.sum(), churned.sum());
+        System.out.printf(Locale.ROOT, "throughput  %.0f queries/s%n", count / elapsed);
+        System.out.printf(Locale.ROOT, "latency     mean %.1f  p50 %.1f  p99 %.1f  p99.9 %.1f  max %.1f us%n",
+                snapshot.mean() / 1e3, snapshot.p50() / 1e3, snapshot.p99() / 1e3, snapshot.p999() / 1e3, snapshot.max() / 1e3);
+        System.out.printf(Locale.ROOT, "allocation  %.2f MB/s, %.0f bytes/query%n",
+                allocated.sum() / elapsed / (1 << 20), count == 0 ? 0.0 : (double) allocated.sum() / count);
+    }
+
+    private void client(final int index) {
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final AStarPathfinder pathfinder = new AStarPathfinder(grid, Heuristic.MANHATTAN);
+        final SplittableRandom random = new SplittableRandom(Grids.SEED + index);
+        final int[] path = new int[grid.getNodeCount()];
+
+        // Each client runs at its share of the rate, offset from the others so
+        // the queries do not arrive in bursts.
+        final long interval = options.rate() > 0 ? (long) (options.clients() * 1e9 / options.rate()) : 0;
+        long scheduled = System.nanoTime() + interval * index / options.clients();
+        boolean measured = false;
+        long allocatedBefore = 0;
+
+        while (running) {
+            if (!measured && measuring) {
+                measured = true;
+                allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            }
+
+            final long now = System.nanoTime();
+            if (interval > 0) {
+                if (scheduled > now) {
+                    LockSupport.parkNanos(scheduled - now);
+                    continue;
+                }
+            } else {
+                scheduled = now;
+            }
+
+            final int start = openCell(random);
+            final int goal = near(random, start);
+            final int count = pathfinder.findPath(start, goal, path);
+            final long took = System.nanoTime() - scheduled;
+            scheduled += interval;
+
+            if (measured) {
+                latency.record(took);
+                queries.increment();
+                if (count > 0) found.increment();
+            }
+        }
+
+        if (measured) allocated.add(threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+    }
+
+    /**
+     * Blocks open cells at the churn rate and reopens the oldest once
+     * {@value #CHURN_CELLS} are blocked, so the share of open cells stays the
+     * same. The churn thread is the only writer of the grid.
+     */
+    private void churn() {
+        if (options.churn() <= 0) return;
+
+        final SplittableRandom random = new SplittableRandom(Grids.SEED - 1);
+        final int[] blocked = new int[CHURN_CELLS];
+        final long interval = (long) (1e9 / options.churn());
+        long scheduled = System.nanoTime();
+        int next = 0, size = 0;
+
+        while (running) {
+            final long now = System.nanoTime();
+            if (scheduled > now) {
+                LockSupport.parkNanos(scheduled - now);
+                continue;
+            }
+            scheduled += interval;
+
+            if (size == CHURN_CELLS) grid.setTraversable(blocked[next], true);
+            else size++;
+
+            blocked[next] = openCell(random);
+            grid.setTraversable(blocked[next], false);
+            next = (next + 1) % CHURN_CELLS;
+            if (measuring) churned.increment();
+        }
+    }
+
+    private int openCell(final SplittableRandom random) {
+        while (true) {
+            final int id = random.nextInt(grid.getNodeCount());
+            if (grid.isTraversable(id)) return id;
+        }
+    }
+
+    /**
+     * Picks a goal for a start, six queries out of ten stay within
+     * {@value #SHORT} cells, three within {@value #MEDIUM} and one goes
+     * anywhere.
+     */
+    private int near(final SplittableRandom random, final int start) {
+        final int draw = random.nextInt(10);
+        final int radius = draw < 6 ? SHORT : draw < 9 ? MEDIUM : grid.getWidth();
+        final int x = start % grid.getWidth(), y = start / grid.getWidth();
+
+        for (int attempt = 0; attempt < 64; attempt++) {
+            final int gx = x + random.nextInt(-radius, radius + 1);
+            final int gy = y + random.nextInt(-radius, radius + 1);
+            if ((gx != x || gy != y) && grid.isTraversable(gx, gy)) return grid.getId(gx, gy, 0);
+        }
+
+        return openCell(random);
+    }
+}
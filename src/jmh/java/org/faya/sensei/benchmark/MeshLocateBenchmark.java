@@ -0,0 +1,81 @@
+package org.faya.sensei.benchmark;
+
+import org.faya.sensei.graph.GraphGenerator;
+import org.faya.sensei.graph.MeshGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point location on a flat plane of unit quads, from scratch at random points
+ * or from the previous triangle along an agent walking across the plane.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeshLocateBenchmark {
+
+    private static final int POINTS = 4096;
+
+    @Param({"101", "301"})
+    public int size;
+
+    private MeshGraph plane;
+    private double[] points;
+    private final double[] position = new double[3];
+    private int triangle;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        plane = new GraphGenerator().plane(size - 1, size - 1);
+
+        final SplittableRandom random = new SplittableRandom(Grids.SEED);
+        points = new double[POINTS * 3];
+        for (int i = 0; i < POINTS; i++) {
+            points[i * 3] = random.nextDouble() * (size - 1);
+            points[i * 3 + 2] = random.nextDouble() * (size - 1);
+        }
+
+        position[0] = 0.2;
+        position[2] = 0.2;
+        triangle = plane.locate(position);
+    }
+
+    @Benchmark
+    public int locate() {
+        final int point = next;
+        next = (next + 1) % POINTS;
+
+        position[0] = points[point * 3];
+        position[2] = points[point * 3 + 2];
+        return plane.locate(position);
+    }
+
+    @Benchmark
+    public int locate_Walk() {
+        // Steps diagonally and wraps back to the corner before leaving the plane.
+        position[0] += 0.11;
+        position[2] += 0.07;
+        if (position[0] >= size - 1 || position[2] >= size - 1) {
+            position[0] = 0.2;
+            position[2] = 0.2;
+        }
+
+        return triangle = plane.locate(position, triangle);
+    }
+}
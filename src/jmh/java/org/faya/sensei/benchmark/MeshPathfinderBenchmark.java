@@ -0,0 +1,73 @@
+package org.faya.sensei.benchmark;
+
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.MeshGraph;
+import org.faya.sensei.graph.MeshLoader;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path searches on the {@code navmesh.glb} resource, over its vertices or
+ * over its triangles. Mesh edges are Euclidean lengths, so the searches use
+ * the Euclidean heuristic.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeshPathfinderBenchmark {
+
+    private static final int QUERIES = 256;
+
+    /**
+     * The views of the mesh searched.
+     */
+    public enum View {
+        VERTEX, TRIANGLE
+    }
+
+    @Param({"VERTEX", "TRIANGLE"})
+    public View view;
+
+    private AStarPathfinder pathfinder;
+    private int[] queries;
+    private int[] path;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final MeshGraph mesh;
+        try (final MeshLoader loader = new MeshLoader()) {
+            mesh = new GraphBuilder().build(MeshLoader.getMesh(loader.loadResource("navmesh.glb"), 0));
+        }
+        final IIndexedGraph graph = view == View.VERTEX ? mesh : mesh.getTriangleGraph();
+
+        pathfinder = new AStarPathfinder(graph, Heuristic.EUCLIDEAN);
+        queries = Grids.queries(graph, id -> true, QUERIES);
+        path = new int[graph.getNodeCount()];
+    }
+
+    @Benchmark
+    public int findPath() {
+        final int query = next;
+        next = (next + 2) % queries.length;
+
+        return pathfinder.findPath(queries[query], queries[query + 1], path);
+    }
+}
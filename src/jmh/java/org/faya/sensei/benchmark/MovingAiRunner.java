@@ -0,0 +1,96 @@
+package org.faya.sensei.benchmark;
+
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.MovingAiMap;
+import org.faya.sensei.graph.MovingAiScenario;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.faya.sensei.pathfinding.LazyThetaStarPathfinder;
+import org.faya.sensei.pathfinding.ThetaStarPathfinder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs the queries of a Moving AI scenario and reports the throughput and
+ * the optimality gap of each pathfinder, the gap being the found length over
+ * the optimal eight-connected length, minus one. Any-angle paths can beat the
+ * eight-connected optimum, so their gap may be negative.
+ *
+ * <pre>
+ * gradle movingAi --args="arena.map arena.map.scen"
+ * </pre>
+ */
+public final class MovingAiRunner {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    private MovingAiRunner() { }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: MovingAiRunner <map> <scenario>");
+            System.exit(2);
+        }
+
+        final AbstractGridGraph grid = MovingAiMap.read(Path.of(args[0]));
+        final List<MovingAiScenario> scenarios = MovingAiScenario.read(Path.of(args[1]));
+        System.out.printf(Locale.ROOT, "%s: %dx%d, %d queries%n",
+                args[0], grid.getWidth(), grid.getHeight(), scenarios.size());
+
+        run("A* octile", new AStarPathfinder(grid.getOctileGraph(), Heuristic.OCTILE), grid, scenarios);
+        run("Theta*", new ThetaStarPathfinder(grid, Heuristic.EUCLIDEAN), grid, scenarios);
+        run("Lazy Theta*", new LazyThetaStarPathfinder(grid, Heuristic.EUCLIDEAN), grid, scenarios);
+    }
+
+    private static void run(final String name, final AStarPathfinder pathfinder,
+                            final AbstractGridGraph grid, final List<MovingAiScenario> scenarios) {
+        final int[] path = new int[grid.getNodeCount()];
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (final MovingAiScenario scenario : scenarios) {
+                pathfinder.findPath(scenario.getStart(grid), scenario.getGoal(grid), path);
+            }
+        }
+
+        int failed = 0;
+        double gapSum = 0.0, gapMax = Double.NEGATIVE_INFINITY;
+        final long began = System.nanoTime();
+        for (final MovingAiScenario scenario : scenarios) {
+            final int count = pathfinder.findPath(scenario.getStart(grid), scenario.getGoal(grid), path);
+            if (count == 0 && scenario.getStart(grid) != scenario.getGoal(grid)) {
+                failed++;
+                continue;
+            }
+            if (scenario.optimalLength() <= 0.0) continue;
+
+            final double gap = length(grid, path, count) / scenario.optimalLength() - 1.0;
+            gapSum += gap;
+            gapMax = Math.max(gapMax, gap);
+        }
+        final double seconds = (System.nanoTime() - began) / 1e9;
+
+        final int solved = scenarios.size() - failed;
+        System.out.printf(Locale.ROOT, "%-12s %10.0f queries/s  gap mean %+.4f%%  max %+.4f%%  failed %d%n",
+                name, scenarios.size() / seconds, solved == 0 ? 0.0 : 100.0 * gapSum / solved,
+                solved == 0 ? 0.0 : 100.0 * gapMax, failed);
+    }
+
+    /**
+     * Sums the euclidean distances between the cells of a path, a straight
+     * step costs 1 and a diagonal one {@code sqrt(2)} like in the scenarios.
+     */
+    private static double length(final AbstractGridGraph grid, final int[] path, final int count) {
+        final int width = grid.getWidth();
+        double length = 0.0;
+        for (int i = 1; i < count; i++) {
+            final int dx = path[i] % width - path[i - 1] % width;
+            final int dy = path[i] / width - path[i - 1] / width;
+            length += Math.sqrt((double) dx * dx + (double) dy * dy);
+        }
+
+        return length;
+    }
+}
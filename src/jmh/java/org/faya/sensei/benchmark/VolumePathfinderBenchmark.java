@@ -0,0 +1,88 @@
+package org.faya.sensei.benchmark;
+
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.OctreeGraph;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path searches on cube grids, cell by cell or over the octree built from
+ * them. Both views answer the same queries, the octree starts and ends in the
+ * leaves holding the query cells. Octree edges are distances between cube
+ * centers, so only the Euclidean heuristic is admissible on both views.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VolumePathfinderBenchmark {
+
+    private static final int QUERIES = 256;
+
+    /**
+     * The views of the volume searched.
+     */
+    public enum View {
+        GRID, OCTREE
+    }
+
+    @Param({"RANDOM", "CAVERNS", "WALLS"})
+    public Grids.VolumeLayout layout;
+
+    @Param({"64"})
+    public int size;
+
+    @Param({"GRID", "OCTREE"})
+    public View view;
+
+    private AStarPathfinder pathfinder;
+    private int[] queries;
+    private int[] path;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final AbstractGridGraph volume = Grids.volume(layout, size);
+        queries = Grids.queries(volume, volume::isTraversable, QUERIES);
+
+        final IIndexedGraph graph;
+        if (view == View.OCTREE) {
+            final OctreeGraph octree = OctreeGraph.from(volume);
+            final double[] position = new double[3];
+            for (int i = 0; i < queries.length; i++) {
+                volume.getPosition(queries[i], position);
+                queries[i] = octree.locate((int) position[0], (int) position[1], (int) position[2]);
+            }
+            graph = octree;
+        } else {
+            graph = volume;
+        }
+
+        pathfinder = new AStarPathfinder(graph, Heuristic.EUCLIDEAN);
+        path = new int[graph.getNodeCount()];
+    }
+
+    @Benchmark
+    public int findPath() {
+        final int query = next;
+        next = (next + 2) % queries.length;
+
+        return pathfinder.findPath(queries[query], queries[query + 1], path);
+    }
+}
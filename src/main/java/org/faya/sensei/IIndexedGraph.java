@@ -0,0 +1,55 @@
+package org.faya.sensei;
+
+public interface IIndexedGraph extends IGraph {
+
+    /**
+     * Retrieves the number of nodes in the graph, ids range from zero to the
+     * node count exclusive.
+     *
+     * @return The number of nodes.
+     */
+    int getNodeCount();
+
+    /**
+     * Retrieves the number of components of a node position.
+     *
+     * @return The dimensions of the graph.
+     */
+    int getDimensions();
+
+    /**
+     * Retrieves the largest number of neighbors a single node can have, used to
+     * size the buffers passed to {@link #getNeighbors(int, int[], double[])}.
+     *
+     * @return The maximum degree of the graph.
+     */
+    int getMaxDegree();
+
+    /**
+     * Retrieves the id of a node in the graph.
+     *
+     * @param node The node.
+     * @return The id of the node, or -1 if the node does not belong to the graph.
+     */
+    int getId(final INode node);
+
+    /**
+     * Writes the position of a node into the given buffer.
+     *
+     * @param id       The id of the node.
+     * @param position The buffer receiving the position, at least
+     *                 {@link #getDimensions()} long.
+     */
+    void getPosition(final int id, final double[] position);
+
+    /**
+     * Writes the neighbors of a node and the cost to reach them into the given
+     * buffers.
+     *
+     * @param id        The id of the node.
+     * @param neighbors The buffer receiving the neighbor ids.
+     * @param costs     The buffer receiving the edge costs.
+     * @return The number of neighbors written.
+     */
+    int getNeighbors(final int id, final int[] neighbors, final double[] costs);
+}
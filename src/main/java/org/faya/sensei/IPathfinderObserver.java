@@ -11,6 +11,23 @@ public interface IPathfinderObserver {
      */
     void onNode(final INode node);
 
+    /**
+     * Called with a batch of nodes processed during a search over an indexed
+     * graph, in the order they were processed. Forwards every node to
+     * {@link #onNode(INode)} by default, an observer that only needs ids or
+     * counts can override it and never touch a node handle. The array is
+     * reused for the next batch once the call returns.
+     *
+     * @param graph The graph searched.
+     * @param ids   The ids of the processed nodes.
+     * @param count The number of ids in the batch.
+     */
+    default void onNodes(final IIndexedGraph graph, final int[] ids, final int count) {
+        for (int i = 0; i < count; i++) {
+            onNode(graph.getNode(ids[i]));
+        }
+    }
+
     /**
      * Called when a path is found or failure.
      *
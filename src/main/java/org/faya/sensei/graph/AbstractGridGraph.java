@@ -0,0 +1,352 @@
+package org.faya.sensei.graph;
+
+import org.faya.sensei.INode;
+
+/**
+ * Common part of the grid graphs, cell ids run along x first, then y, then z.
+ * Subclasses only decide how the traversability and cost of a cell are stored.
+ */
+public abstract class AbstractGridGraph extends AbstractIndexedGraph {
+
+    private static final double SQRT_2 = Math.sqrt(2.0);
+
+    protected final int width, height, depth;
+    protected final int dimensions;
+
+    private final OctileGraph octileGraph = new OctileGraph();
+
+    protected AbstractGridGraph(final int width, final int height, final int depth, final int dimensions) {
+        if (width <= 0 || height <= 0 || depth <= 0)
+            throw new IllegalArgumentException("Grid size must be positive.");
+        if ((long) width * height * depth > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Grid size exceeds " + Integer.MAX_VALUE + " cells.");
+
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+        this.dimensions = dimensions;
+    }
+
+    // Getter and setter
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Retrieves the view of the grid where a cell also links to its diagonal
+     * neighbors on its layer.
+     *
+     * @return The octile graph.
+     */
+    public OctileGraph getOctileGraph() {
+        return octileGraph;
+    }
+
+    public abstract boolean isTraversable(final int id);
+
+    public boolean isTraversable(final int x, final int y) {
+        return isTraversable(x, y, 0);
+    }
+
+    public boolean isTraversable(final int x, final int y, final int z) {
+        return contains(x, y, z) && isTraversable(getId(x, y, z));
+    }
+
+    public abstract void setTraversable(final int id, final boolean traversable);
+
+    public void setTraversable(final int x, final int y, final boolean traversable) {
+        setTraversable(x, y, 0, traversable);
+    }
+
+    public void setTraversable(final int x, final int y, final int z, final boolean traversable) {
+        if (!contains(x, y, z)) throw new IndexOutOfBoundsException("Cell outside of the grid.");
+        setTraversable(getId(x, y, z), traversable);
+    }
+
+    /**
+     * Checks a run of cells along x, the cells must be on the same row.
+     *
+     * @param id    The first cell.
+     * @param count The number of cells.
+     * @return {@code true} if every cell of the run is traversable.
+     */
+    public boolean isRunTraversable(final int id, final int count) {
+        for (int i = id; i < id + count; i++) {
+            if (!isTraversable(i)) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Retrieves the cost of entering a cell.
+     *
+     * @param id The id of the cell.
+     * @return The cost of the cell.
+     */
+    public double getCost(final int id) {
+        return 1.0;
+    }
+
+    // Function
+
+    public boolean contains(final int x, final int y, final int z) {
+        return x >= 0 && x < width && y >= 0 && y < height && z >= 0 && z < depth;
+    }
+
+    public int getId(final int x, final int y, final int z) {
+        return x + width * (y + height * z);
+    }
+
+    @Override
+    public int getNodeCount() {
+        return width * height * depth;
+    }
+
+    @Override
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public int getMaxDegree() {
+        return dimensions * 2;
+    }
+
+    @Override
+    public void getPosition(final int id, final double[] position) {
+        position[0] = id % width;
+        position[1] = id / width % height;
+        if (dimensions > 2) position[2] = id / width / height;
+    }
+
+    @Override
+    public int getNeighbors(final int id, final int[] neighbors, final double[] costs) {
+        final int x = id % width;
+        final int y = id / width % height;
+        final int z = id / width / height;
+        final int layer = width * height;
+        int count = 0;
+
+        if (x > 0) count = add(neighbors, costs, count, id - 1);
+        if (x < width - 1) count = add(neighbors, costs, count, id + 1);
+        if (y > 0) count = add(neighbors, costs, count, id - width);
+        if (y < height - 1) count = add(neighbors, costs, count, id + width);
+        if (z > 0) count = add(neighbors, costs, count, id - layer);
+        if (z < depth - 1) count = add(neighbors, costs, count, id + layer);
+
+        return count;
+    }
+
+    /**
+     * Checks whether the segment between two cell centers only crosses
+     * traversable cells. The cells are walked with a voxel traversal, a
+     * segment passing exactly through a corner or an edge also needs the
+     * cells around it, so it never cuts a blocked corner. Consecutive cells
+     * along x are checked together as a run.
+     *
+     * @param from The id of the first cell.
+     * @param to   The id of the last cell.
+     * @return {@code true} if every crossed cell is traversable.
+     */
+    public boolean hasLineOfSight(final int from, final int to) {
+        int x = from % width, y = from / width % height, z = from / width / height;
+        final int tx = to % width, ty = to / width % height, tz = to / width / height;
+        final int sx = Integer.signum(tx - x), sy = Integer.signum(ty - y), sz = Integer.signum(tz - z);
+        final long ax = Math.abs(tx - x), ay = Math.abs(ty - y), az = Math.abs(tz - z);
+        final int layer = width * height;
+
+        // The segment crosses its k-th boundary along an axis at
+        // t = (2k + 1) / (2 * a), only the odd numerators are tracked.
+        long nx = 1, ny = 1, nz = 1;
+        int id = from, runStart = from, runLength = 1;
+        while (x != tx || y != ty || z != tz) {
+            final int xy = compare(nx, ax, ny, ay);
+            final int xz = compare(nx, ax, nz, az);
+            final int yz = compare(ny, ay, nz, az);
+            final boolean stepX = xy <= 0 && xz <= 0;
+            final boolean stepY = xy >= 0 && yz <= 0;
+            final boolean stepZ = xz >= 0 && yz >= 0;
+
+            if ((stepX ? 1 : 0) + (stepY ? 1 : 0) + (stepZ ? 1 : 0) > 1) {
+                // Through an edge or a corner, every cell touching it counts.
+                if (stepX && !isTraversable(id + sx)) return false;
+                if (stepY && !isTraversable(id + sy * width)) return false;
+                if (stepZ && !isTraversable(id + sz * layer)) return false;
+                if (stepX && stepY && stepZ) {
+                    if (!isTraversable(id + sx + sy * width)) return false;
+                    if (!isTraversable(id + sx + sz * layer)) return false;
+                    if (!isTraversable(id + sy * width + sz * layer)) return false;
+                }
+            }
+
+            if (stepX) {
+                x += sx;
+                nx += 2;
+                id += sx;
+            }
+            if (stepY) {
+                y += sy;
+                ny += 2;
+                id += sy * width;
+            }
+            if (stepZ) {
+                z += sz;
+                nz += 2;
+                id += sz * layer;
+            }
+
+            if (stepX && !stepY && !stepZ) {
+                runLength++;
+                if (sx < 0) runStart = id;
+            } else {
+                if (!isRunTraversable(runStart, runLength)) return false;
+                runStart = id;
+                runLength = 1;
+            }
+        }
+
+        return isRunTraversable(runStart, runLength);
+    }
+
+    /**
+     * Shortens a path in place by skipping the cells a greedy walk can see
+     * past. From the last kept cell, the walk keeps the cell before the first
+     * one out of sight, so it costs one line of sight check per cell.
+     *
+     * @param path   The cell ids from start to goal.
+     * @param length The number of cells in the path.
+     * @return The number of cells left at the front of the path.
+     */
+    public int smoothPath(final int[] path, final int length) {
+        if (length <= 2) return length;
+
+        int count = 1;
+        for (int i = 2; i < length; i++) {
+            if (!hasLineOfSight(path[count - 1], path[i])) path[count++] = path[i - 1];
+        }
+        path[count++] = path[length - 1];
+
+        return count;
+    }
+
+    /**
+     * Retrieves the cell at a position.
+     *
+     * @param position The position of the cell.
+     * @return The node of the cell, or null if the position is outside the grid.
+     */
+    @Override
+    public INode getNode(final double[] position) {
+        if (position.length < dimensions) return null;
+
+        final int x = (int) Math.floor(position[0]);
+        final int y = (int) Math.floor(position[1]);
+        final int z = dimensions > 2 ? (int) Math.floor(position[2]) : 0;
+
+        return contains(x, y, z) ? getNode(getId(x, y, z)) : null;
+    }
+
+    /**
+     * Compares the crossing times {@code n1 / a1} and {@code n2 / a2} exactly,
+     * an axis the segment does not move along never crosses.
+     */
+    private static int compare(final long n1, final long a1, final long n2, final long a2) {
+        if (a1 == 0) return a2 == 0 ? 0 : 1;
+        if (a2 == 0) return -1;
+
+        return Long.compare(n1 * a2, n2 * a1);
+    }
+
+    private int add(final int[] neighbors, final double[] costs, final int count, final int id) {
+        if (!isTraversable(id)) return count;
+
+        neighbors[count] = id;
+        costs[count] = getCost(id);
+        return count + 1;
+    }
+
+    /**
+     * Eight-connected view of the grid, the cells and their ids are the same.
+     * A diagonal step costs {@code sqrt(2)} times the cost of the cell entered
+     * and is only allowed when both cells beside it are traversable, so paths
+     * never cut a blocked corner. Layers still link only straight up and down.
+     */
+    public class OctileGraph extends AbstractIndexedGraph {
+
+        private OctileGraph() { }
+
+        public AbstractGridGraph getGrid() {
+            return AbstractGridGraph.this;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return AbstractGridGraph.this.getNodeCount();
+        }
+
+        @Override
+        public int getDimensions() {
+            return dimensions;
+        }
+
+        @Override
+        public int getMaxDegree() {
+            return dimensions > 2 ? 10 : 8;
+        }
+
+        @Override
+        public void getPosition(final int id, final double[] position) {
+            AbstractGridGraph.this.getPosition(id, position);
+        }
+
+        @Override
+        public int getNeighbors(final int id, final int[] neighbors, final double[] costs) {
+            final int x = id % width;
+            final int y = id / width % height;
+            final int z = id / width / height;
+            final int layer = width * height;
+            int count = 0;
+
+            final boolean left = x > 0 && isTraversable(id - 1);
+            final boolean right = x < width - 1 && isTraversable(id + 1);
+            final boolean down = y > 0 && isTraversable(id - width);
+            final boolean up = y < height - 1 && isTraversable(id + width);
+
+            if (left) count = add(neighbors, costs, count, id - 1, 1.0);
+            if (right) count = add(neighbors, costs, count, id + 1, 1.0);
+            if (down) count = add(neighbors, costs, count, id - width, 1.0);
+            if (up) count = add(neighbors, costs, count, id + width, 1.0);
+            if (left && down && isTraversable(id - 1 - width)) count = add(neighbors, costs, count, id - 1 - width, SQRT_2);
+            if (right && down && isTraversable(id + 1 - width)) count = add(neighbors, costs, count, id + 1 - width, SQRT_2);
+            if (left && up && isTraversable(id - 1 + width)) count = add(neighbors, costs, count, id - 1 + width, SQRT_2);
+            if (right && up && isTraversable(id + 1 + width)) count = add(neighbors, costs, count, id + 1 + width, SQRT_2);
+            if (z > 0 && isTraversable(id - layer)) count = add(neighbors, costs, count, id - layer, 1.0);
+            if (z < depth - 1 && isTraversable(id + layer)) count = add(neighbors, costs, count, id + layer, 1.0);
+
+            return count;
+        }
+
+        @Override
+        public INode getNode(final double[] position) {
+            final INode cell = AbstractGridGraph.this.getNode(position);
+
+            return cell == null ? null : getNode(AbstractGridGraph.this.getId(cell));
+        }
+
+        private int add(final int[] neighbors, final double[] costs, final int count, final int id, final double scale) {
+            neighbors[count] = id;
+            costs[count] = scale * getCost(id);
+            return count + 1;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.faya.sensei.graph;
+
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.INode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public abstract class AbstractIndexedGraph implements IIndexedGraph {
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Pages of {@value #PAGE_SIZE} handle slots, a page is only allocated once
+     * a handle in its range is asked for, so the memory follows the handles
+     * in use rather than the node count.
+     */
+    private volatile AtomicReferenceArray<AtomicReferenceArray<IndexedNode>> pages;
+
+    /**
+     * Retrieves the node handle of an id, handles are created on first access
+     * and reused afterward so the node state survives between calls.
+     *
+     * @param id The id of the node.
+     * @return The node handle, or null if the id is out of bounds.
+     */
+    @Override
+    public INode getNode(final int id) {
+        if (id < 0 || id >= getNodeCount()) return null;
+
+        final AtomicReferenceArray<IndexedNode> page = getPage(id >>> PAGE_SHIFT);
+        final int slot = id & (PAGE_SIZE - 1);
+        final IndexedNode handle = page.get(slot);
+        if (handle != null) return handle;
+
+        final IndexedNode created = new IndexedNode(this, id);
+        return page.compareAndSet(slot, null, created) ? created : page.get(slot);
+    }
+
+    @Override
+    public int getId(final INode node) {
+        return node instanceof IndexedNode indexedNode && indexedNode.getGraph() == this
+                ? indexedNode.getId()
+                : -1;
+    }
+
+    /**
+     * Collects the neighbor handles of a node, the ids and costs go through
+     * scratch buffers of the calling thread.
+     */
+    @Override
+    public List<INode> getNeighbors(final INode node) {
+        final int id = getId(node);
+        if (id < 0) return List.of();
+
+        final Scratch buffers = scratch.get();
+        if (buffers.neighbors.length < getMaxDegree()) {
+            buffers.neighbors = new int[getMaxDegree()];
+            buffers.costs = new double[getMaxDegree()];
+        }
+        final int count = getNeighbors(id, buffers.neighbors, buffers.costs);
+
+        final List<INode> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(getNode(buffers.neighbors[i]));
+        }
+
+        return result;
+    }
+
+    /**
+     * Drops every node handle created so far, the next access creates fresh
+     * handles with cleared costs and parents.
+     */
+    public void clearNodes() {
+        pages = null;
+    }
+
+    private AtomicReferenceArray<IndexedNode> getPage(final int index) {
+        AtomicReferenceArray<AtomicReferenceArray<IndexedNode>> table = pages;
+        if (table == null) {
+            synchronized (this) {
+                table = pages;
+                if (table == null) pages = table = new AtomicReferenceArray<>((getNodeCount() + PAGE_SIZE - 1) >>> PAGE_SHIFT);
+            }
+        }
+
+        final AtomicReferenceArray<IndexedNode> page = table.get(index);
+        if (page != null) return page;
+
+        final AtomicReferenceArray<IndexedNode> created = new AtomicReferenceArray<>(PAGE_SIZE);
+        return table.compareAndSet(index, null, created) ? created : table.get(index);
+    }
+
+    private static final class Scratch {
+
+        private int[] neighbors = new int[0];
+        private double[] costs = new double[0];
+    }
+}
@@ -0,0 +1,59 @@
+package org.faya.sensei.graph;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event around a graph build of {@link GraphBuilder}.
+ * Disabled unless a recording turns it on, a disabled event costs a branch
+ * and its allocation is removed by the JIT.
+ */
+@Name("org.faya.sensei.GraphBuild")
+@Label("Graph Build")
+@Description("Builds a grid or mesh graph.")
+@Category({"Sensei", "Graph"})
+@Enabled(false)
+@StackTrace(false)
+final class BuildEvent extends Event {
+
+    @Label("Graph Type")
+    String type;
+
+    @Label("Graph Id")
+    @Description("Identity hash of the graph, the same as in search events.")
+    int graph;
+
+    @Label("Nodes")
+    int nodes;
+
+    @Label("Triangles")
+    int triangles;
+
+    @Label("Parallel")
+    boolean parallel;
+
+    // Function
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     *
+     * @param graph     The graph built.
+     * @param triangles The number of triangles, 0 for a grid.
+     * @param parallel  Whether the build ran on a pool.
+     */
+    void end(final AbstractIndexedGraph graph, final int triangles, final boolean parallel) {
+        if (!shouldCommit()) return;
+
+        this.type = graph.getClass().getSimpleName();
+        this.graph = System.identityHashCode(graph);
+        this.nodes = graph.getNodeCount();
+        this.triangles = triangles;
+        this.parallel = parallel;
+        commit();
+    }
+}
@@ -0,0 +1,217 @@
+package org.faya.sensei.graph;
+
+import java.util.Arrays;
+
+/**
+ * Grid graph split into chunks of 16 x 16 x 16 cells, or 16 x 16 cells when the
+ * grid has a single layer. A chunk whose cells are all open or all blocked
+ * points to a shared read-only bitset, only chunks with mixed cells own their
+ * words, which are copied on the first write. Owned words never have the bits
+ * of cells past the grid border set.
+ */
+public class ChunkedGridGraph extends AbstractGridGraph {
+
+    public static final int CHUNK_SHIFT = 4;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * The chunk depth as a shift, 0 on a single layer.
+     */
+    private final int depthShift;
+    private final long[] open, blocked;
+
+    private final int chunksX, chunksY;
+    private final long[][] chunks;
+
+    ChunkedGridGraph(final int width, final int height, final int depth, final int dimensions) {
+        super(width, height, depth, dimensions);
+
+        depthShift = depth == 1 ? 0 : CHUNK_SHIFT;
+        open = filled(-1L);
+        blocked = filled(0L);
+
+        chunksX = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+        chunksY = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+        chunks = new long[chunksX * chunksY * ((depth + (1 << depthShift) - 1) >> depthShift)][];
+        Arrays.fill(chunks, open);
+    }
+
+    // Getter and setter
+
+    @Override
+    public boolean isTraversable(final int id) {
+        return isTraversable(id % width, id / width % height, id / width / height);
+    }
+
+    @Override
+    public boolean isTraversable(final int x, final int y, final int z) {
+        if (!contains(x, y, z)) return false;
+
+        final int local = local(x, y, z);
+        return (chunks[chunk(x, y, z)][local >>> 6] & (1L << local)) != 0;
+    }
+
+    @Override
+    public void setTraversable(final int id, final boolean traversable) {
+        setTraversable(id % width, id / width % height, id / width / height, traversable);
+    }
+
+    @Override
+    public void setTraversable(final int x, final int y, final int z, final boolean traversable) {
+        if (!contains(x, y, z)) throw new IndexOutOfBoundsException("Cell outside of the grid.");
+
+        final int chunk = chunk(x, y, z);
+        final int local = local(x, y, z);
+        final boolean current = (chunks[chunk][local >>> 6] & (1L << local)) != 0;
+        if (current == traversable) return;
+
+        if (chunks[chunk] == open) chunks[chunk] = inside(chunk);
+        else if (chunks[chunk] == blocked) chunks[chunk] = blocked.clone();
+
+        if (traversable) chunks[chunk][local >>> 6] |= 1L << local;
+        else chunks[chunk][local >>> 6] &= ~(1L << local);
+    }
+
+    /**
+     * Retrieves the number of chunks holding their own storage.
+     *
+     * @return The number of mixed chunks.
+     */
+    public int getAllocatedChunkCount() {
+        int count = 0;
+        for (final long[] chunk : chunks) {
+            if (chunk != open && chunk != blocked) count++;
+        }
+
+        return count;
+    }
+
+    // Function
+
+    /**
+     * Sets the traversability of every cell in a box, chunks entirely covered
+     * by the box become uniform without allocating.
+     *
+     * @param minX        The lowest x, inclusive.
+     * @param minY        The lowest y, inclusive.
+     * @param minZ        The lowest z, inclusive.
+     * @param maxX        The highest x, exclusive.
+     * @param maxY        The highest y, exclusive.
+     * @param maxZ        The highest z, exclusive.
+     * @param traversable The traversability to set.
+     */
+    public void fill(final int minX, final int minY, final int minZ,
+                     final int maxX, final int maxY, final int maxZ, final boolean traversable) {
+        final int fromX = Math.max(0, minX), toX = Math.min(width, maxX);
+        final int fromY = Math.max(0, minY), toY = Math.min(height, maxY);
+        final int fromZ = Math.max(0, minZ), toZ = Math.min(depth, maxZ);
+        final long[] uniform = traversable ? open : blocked;
+
+        for (int cz = fromZ >> depthShift; cz << depthShift < toZ; cz++) {
+            for (int cy = fromY >> CHUNK_SHIFT; cy << CHUNK_SHIFT < toY; cy++) {
+                for (int cx = fromX >> CHUNK_SHIFT; cx << CHUNK_SHIFT < toX; cx++) {
+                    final int x0 = Math.max(fromX, cx << CHUNK_SHIFT), x1 = Math.min(toX, (cx + 1) << CHUNK_SHIFT);
+                    final int y0 = Math.max(fromY, cy << CHUNK_SHIFT), y1 = Math.min(toY, (cy + 1) << CHUNK_SHIFT);
+                    final int z0 = Math.max(fromZ, cz << depthShift), z1 = Math.min(toZ, (cz + 1) << depthShift);
+
+                    // Cells past the grid border are never read, a chunk on
+                    // the border is covered once all of its cells inside are.
+                    if (x0 == cx << CHUNK_SHIFT && x1 == Math.min(width, (cx + 1) << CHUNK_SHIFT)
+                            && y0 == cy << CHUNK_SHIFT && y1 == Math.min(height, (cy + 1) << CHUNK_SHIFT)
+                            && z0 == cz << depthShift && z1 == Math.min(depth, (cz + 1) << depthShift)) {
+                        chunks[cx + chunksX * (cy + chunksY * cz)] = uniform;
+                        continue;
+                    }
+
+                    for (int z = z0; z < z1; z++) {
+                        for (int y = y0; y < y1; y++) {
+                            for (int x = x0; x < x1; x++) {
+                                setTraversable(x, y, z, traversable);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the storage of mixed chunks that have become uniform again.
+     */
+    public void compact() {
+        for (int i = 0; i < chunks.length; i++) {
+            if (chunks[i] == open || chunks[i] == blocked) continue;
+            if (Arrays.equals(chunks[i], blocked)) chunks[i] = blocked;
+            else if (Arrays.equals(chunks[i], inside(i))) chunks[i] = open;
+        }
+    }
+
+    /**
+     * Decodes the cell once and looks the neighbors up by coordinates, a move
+     * inside a chunk stays on the same bitset and a move across a chunk border
+     * costs a single extra table read.
+     */
+    @Override
+    public int getNeighbors(final int id, final int[] neighbors, final double[] costs) {
+        final int x = id % width;
+        final int y = id / width % height;
+        final int z = id / width / height;
+        final int layer = width * height;
+        int count = 0;
+
+        if (isTraversable(x - 1, y, z)) count = add(neighbors, costs, count, id - 1);
+        if (isTraversable(x + 1, y, z)) count = add(neighbors, costs, count, id + 1);
+        if (isTraversable(x, y - 1, z)) count = add(neighbors, costs, count, id - width);
+        if (isTraversable(x, y + 1, z)) count = add(neighbors, costs, count, id + width);
+        if (isTraversable(x, y, z - 1)) count = add(neighbors, costs, count, id - layer);
+        if (isTraversable(x, y, z + 1)) count = add(neighbors, costs, count, id + layer);
+
+        return count;
+    }
+
+    private int chunk(final int x, final int y, final int z) {
+        return (x >> CHUNK_SHIFT) + chunksX * ((y >> CHUNK_SHIFT) + chunksY * (z >> depthShift));
+    }
+
+    private int local(final int x, final int y, final int z) {
+        return (x & CHUNK_MASK) | (y & CHUNK_MASK) << CHUNK_SHIFT | (z & ((1 << depthShift) - 1)) << (CHUNK_SHIFT * 2);
+    }
+
+    /**
+     * Builds the words of a chunk with every cell inside the grid open, the
+     * same as the open chunk unless the chunk lies on the grid border.
+     */
+    private long[] inside(final int chunk) {
+        final int cx = chunk % chunksX, cy = chunk / chunksX % chunksY, cz = chunk / chunksX / chunksY;
+        final int sizeX = Math.min(CHUNK_SIZE, width - (cx << CHUNK_SHIFT));
+        final int sizeY = Math.min(CHUNK_SIZE, height - (cy << CHUNK_SHIFT));
+        final int sizeZ = Math.min(1 << depthShift, depth - (cz << depthShift));
+        if (sizeX == CHUNK_SIZE && sizeY == CHUNK_SIZE && sizeZ == 1 << depthShift) return open.clone();
+
+        final long[] words = filled(0L);
+        for (int z = 0; z < sizeZ; z++) {
+            for (int y = 0; y < sizeY; y++) {
+                for (int x = 0; x < sizeX; x++) {
+                    final int local = local(x, y, z);
+                    words[local >>> 6] |= 1L << local;
+                }
+            }
+        }
+
+        return words;
+    }
+
+    private static int add(final int[] neighbors, final double[] costs, final int count, final int id) {
+        neighbors[count] = id;
+        costs[count] = 1.0;
+        return count + 1;
+    }
+
+    private long[] filled(final long value) {
+        final long[] words = new long[(CHUNK_SIZE * CHUNK_SIZE << depthShift) / 64];
+        Arrays.fill(words, value);
+        return words;
+    }
+}
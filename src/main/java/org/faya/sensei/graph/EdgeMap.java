@@ -0,0 +1,136 @@
+package org.faya.sensei.graph;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from an undirected edge, packed as two vertex indices in
+ * a long, to the first half edge that referenced it.
+ */
+final class EdgeMap {
+
+    static final int NONE = -1;
+
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    EdgeMap(final int expectedSize) {
+        final int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Packs an undirected edge into a key, the smaller vertex index goes into
+     * the high half so both directions produce the same key.
+     *
+     * @param a The first vertex index.
+     * @param b The second vertex index.
+     * @return The packed key.
+     */
+    static long key(final int a, final int b) {
+        return a < b
+                ? ((long) a << 32) | (b & 0xFFFFFFFFL)
+                : ((long) b << 32) | (a & 0xFFFFFFFFL);
+    }
+
+    static int low(final long key) {
+        return (int) key;
+    }
+
+    static int high(final long key) {
+        return (int) (key >>> 32);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] keys() {
+        return keys;
+    }
+
+    int[] values() {
+        return values;
+    }
+
+    static boolean isEmpty(final long key) {
+        return key == EMPTY;
+    }
+
+    /**
+     * Pairs the half edge with the one stored under the same key, or stores it
+     * if the edge has not been seen yet. An edge is paired at most once, any
+     * further face on a non-manifold edge stays unpaired.
+     *
+     * @param key      The packed edge key.
+     * @param halfEdge The half edge to pair.
+     * @return The twin half edge, or {@link #NONE} if there is none.
+     */
+    int match(final long key, final int halfEdge) {
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                final int twin = values[slot];
+                values[slot] = NONE;
+                return twin;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = halfEdge;
+        if (++size * 2 > keys.length) grow();
+
+        return NONE;
+    }
+
+    /**
+     * Moves the edges of another map into this one, edges found in both maps
+     * are paired and their triangles linked in the adjacency.
+     *
+     * @param other     The map to merge.
+     * @param adjacency The triangle adjacency to fill.
+     */
+    void merge(final EdgeMap other, final int[] adjacency) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] == EMPTY) continue;
+
+            if (other.values[i] == NONE) {
+                // Already paired on the other side, a half edge waiting here
+                // belongs to a non-manifold edge and stays unpaired.
+                match(other.keys[i], NONE);
+            } else {
+                GraphBuilder.link(adjacency, other.values[i], match(other.keys[i], other.values[i]));
+            }
+        }
+    }
+
+    private int slot(final long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+
+        keys = new long[oldKeys.length << 1];
+        values = new int[oldValues.length << 1];
+        mask = keys.length - 1;
+        Arrays.fill(keys, EMPTY);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = slot(oldKeys[i]);
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package org.faya.sensei.graph;
+
+import org.faya.sensei.IGraphBuilder;
+import org.lwjgl.assimp.AIFace;
+import org.lwjgl.assimp.AIMesh;
+import org.lwjgl.assimp.AIVector3D;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class GraphBuilder implements IGraphBuilder {
+
+    public enum GridStorage {
+        /**
+         * One traversability bit per cell on the Java heap.
+         */
+        BITSET,
+        /**
+         * One cost byte per cell outside the Java heap, optionally mapped from
+         * a file.
+         */
+        OFF_HEAP,
+        /**
+         * Chunks of 16 x 16 x 16 cells where only chunks mixing open and
+         * blocked cells allocate storage.
+         */
+        CHUNKED
+    }
+
+    private GridStorage gridStorage = GridStorage.BITSET;
+    private Path gridFile;
+    private ForkJoinPool pool;
+
+    /**
+     * Builds mesh graphs on the common fork/join pool.
+     *
+     * @return The builder instance.
+     */
+    public GraphBuilder parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds mesh graphs on a fork/join pool, the triangles are split across
+     * the pool to pair their shared edges.
+     *
+     * @param pool The pool to use, or null to build on the calling thread.
+     * @return The builder instance.
+     */
+    public GraphBuilder parallel(final ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Selects how the cells of the grid graphs are stored.
+     *
+     * @param gridStorage The grid storage.
+     * @return The builder instance.
+     */
+    public GraphBuilder gridStorage(final GridStorage gridStorage) {
+        this.gridStorage = gridStorage;
+        return this;
+    }
+
+    /**
+     * Maps the cells of the grid graphs from a file, one cost byte per cell,
+     * implies {@link GridStorage#OFF_HEAP}. A new or empty file starts with
+     * every cell traversable, an existing file must hold exactly one byte per
+     * cell of the grid built or the build throws an
+     * {@link UncheckedIOException}.
+     *
+     * @param gridFile The file path.
+     * @return The builder instance.
+     */
+    public GraphBuilder gridFile(final Path gridFile) {
+        this.gridStorage = GridStorage.OFF_HEAP;
+        this.gridFile = gridFile;
+        return this;
+    }
+
+    @Override
+    public MeshGraph build(final AIMesh mesh) {
+        return build(processVertices(mesh), processIndices(mesh));
+    }
+
+    @Override
+    public AbstractGridGraph build(final int width, final int height) {
+        final BuildEvent event = new BuildEvent();
+        event.begin();
+
+        final AbstractGridGraph graph = buildGrid(width, height, 1, 2);
+        event.end(graph, 0, false);
+        return graph;
+    }
+
+    @Override
+    public AbstractGridGraph build(final int width, final int height, final int depth) {
+        final BuildEvent event = new BuildEvent();
+        event.begin();
+
+        final AbstractGridGraph graph = buildGrid(width, height, depth, 3);
+        event.end(graph, 0, false);
+        return graph;
+    }
+
+    /**
+     * Build the mesh graph based on raw triangle data.
+     *
+     * @param positions The vertex positions, three components per vertex.
+     * @param indices   The triangle indices, three vertices per triangle.
+     * @return The graph instance.
+     */
+    public MeshGraph build(final float[] positions, final int[] indices) {
+        final BuildEvent event = new BuildEvent();
+        event.begin();
+
+        final MeshGraph graph = buildMesh(positions, indices);
+        event.end(graph, graph.getTriangleCount(), pool != null);
+        return graph;
+    }
+
+    private MeshGraph buildMesh(final float[] positions, final int[] indices) {
+        final int vertexCount = positions.length / 3;
+        final int triangleCount = indices.length / 3;
+
+        final int[] adjacency = new int[triangleCount * 3];
+        Arrays.fill(adjacency, -1);
+
+        final EdgeMap edges = pool == null
+                ? matchEdges(indices, adjacency, 0, triangleCount)
+                : pool.invoke(new MatchTask(indices, adjacency, 0, triangleCount));
+
+        // Every key left in the map is a unique undirected edge, count the
+        // degrees first then fill the rows in a second pass.
+        final long[] keys = edges.keys();
+        final int[] offsets = new int[vertexCount + 1];
+        for (final long key : keys) {
+            if (EdgeMap.isEmpty(key)) continue;
+            offsets[EdgeMap.high(key) + 1]++;
+            offsets[EdgeMap.low(key) + 1]++;
+        }
+        if (pool == null) {
+            for (int i = 1; i <= vertexCount; i++) offsets[i] += offsets[i - 1];
+        } else {
+            Arrays.parallelPrefix(offsets, Integer::sum);
+        }
+
+        final int[] targets = new int[offsets[vertexCount]];
+        final float[] weights = new float[targets.length];
+        final int[] cursors = Arrays.copyOf(offsets, vertexCount);
+        for (final long key : keys) {
+            if (EdgeMap.isEmpty(key)) continue;
+            final int a = EdgeMap.high(key), b = EdgeMap.low(key);
+
+            targets[cursors[a]++] = b;
+            targets[cursors[b]++] = a;
+        }
+
+        final float[] centroids = new float[triangleCount * 3];
+        final float[] adjacencyWeights = new float[adjacency.length];
+        forEach(vertexCount, vertex -> {
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+                weights[i] = distance(positions, vertex, targets[i]);
+            }
+        });
+        forEach(triangleCount, triangle -> {
+            final int a = indices[triangle * 3] * 3;
+            final int b = indices[triangle * 3 + 1] * 3;
+            final int c = indices[triangle * 3 + 2] * 3;
+            for (int axis = 0; axis < 3; axis++) {
+                centroids[triangle * 3 + axis] = (positions[a + axis] + positions[b + axis] + positions[c + axis]) / 3.0f;
+            }
+        });
+        forEach(triangleCount, triangle -> {
+            for (int halfEdge = triangle * 3; halfEdge < triangle * 3 + 3; halfEdge++) {
+                if (adjacency[halfEdge] < 0) continue;
+                adjacencyWeights[halfEdge] = distance(centroids, triangle, adjacency[halfEdge]);
+            }
+        });
+
+        return new MeshGraph(positions, indices, offsets, targets, weights, adjacency, adjacencyWeights);
+    }
+
+    private AbstractGridGraph buildGrid(final int width, final int height, final int depth, final int dimensions) {
+        return switch (gridStorage) {
+            case BITSET -> new GridGraph(width, height, depth, dimensions);
+            case OFF_HEAP -> new OffHeapGridGraph(width, height, depth, dimensions,
+                    allocateCells((long) width * height * depth));
+            case CHUNKED -> new ChunkedGridGraph(width, height, depth, dimensions);
+        };
+    }
+
+    private OffHeapBuffer allocateCells(final long count) {
+        if (gridFile == null) {
+            final OffHeapBuffer cells = OffHeapBuffer.allocate(count);
+            cells.fill((byte) OffHeapGridGraph.DEFAULT_COST);
+            return cells;
+        }
+
+        try {
+            final boolean empty = !Files.exists(gridFile) || Files.size(gridFile) == 0;
+            if (!empty && Files.size(gridFile) != count)
+                throw new IOException("Grid file " + gridFile + " holds " + Files.size(gridFile)
+                        + " cells, the grid has " + count + ".");
+
+            final OffHeapBuffer cells = OffHeapBuffer.map(gridFile, count);
+            if (empty) cells.fill((byte) OffHeapGridGraph.DEFAULT_COST);
+            return cells;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void forEach(final int count, final IntConsumer action) {
+        if (pool == null) {
+            for (int i = 0; i < count; i++) action.accept(i);
+        } else {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(action)).join();
+        }
+    }
+
+    /**
+     * Pairs the half edges of a range of triangles that share an edge and
+     * links their triangles in the adjacency.
+     *
+     * @param indices   The triangle indices.
+     * @param adjacency The triangle adjacency to fill.
+     * @param from      The first triangle, inclusive.
+     * @param to        The last triangle, exclusive.
+     * @return The edges of the range, unpaired edges keep their half edge.
+     */
+    static EdgeMap matchEdges(final int[] indices, final int[] adjacency, final int from, final int to) {
+        final EdgeMap edges = new EdgeMap((to - from) * 3 / 2);
+        for (int halfEdge = from * 3; halfEdge < to * 3; halfEdge++) {
+            final int a = indices[halfEdge];
+            final int b = indices[next(halfEdge)];
+            if (a == b) continue;
+
+            link(adjacency, halfEdge, edges.match(EdgeMap.key(a, b), halfEdge));
+        }
+
+        return edges;
+    }
+
+    static void link(final int[] adjacency, final int halfEdge, final int twin) {
+        if (twin == EdgeMap.NONE || twin / 3 == halfEdge / 3) return;
+
+        adjacency[halfEdge] = twin / 3;
+        adjacency[twin] = halfEdge / 3;
+    }
+
+    /**
+     * Retrieves the half edge following another one in the same triangle.
+     *
+     * @param halfEdge The half edge.
+     * @return The next half edge.
+     */
+    static int next(final int halfEdge) {
+        return halfEdge % 3 == 2 ? halfEdge - 2 : halfEdge + 1;
+    }
+
+    private static float distance(final float[] points, final int a, final int b) {
+        final float dx = points[a * 3] - points[b * 3];
+        final float dy = points[a * 3 + 1] - points[b * 3 + 1];
+        final float dz = points[a * 3 + 2] - points[b * 3 + 2];
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Extract the vertex buffer from the mesh instance.
+     *
+     * @param aiMesh The mesh instance.
+     * @return The vertex buffer.
+     */
+    private static float[] processVertices(final AIMesh aiMesh) {
+        final AIVector3D.Buffer buffer = aiMesh.mVertices();
+        final float[] data = new float[buffer.remaining() * 3];
+        int pos = 0;
+        while (buffer.remaining() > 0) {
+            final AIVector3D vertex = buffer.get();
+            data[pos++] = vertex.x();
+            data[pos++] = vertex.y();
+            data[pos++] = vertex.z();
+        }
+        return data;
+    }
+
+    /**
+     * Extract the triangle index buffer from the mesh instance, faces that are
+     * not triangles are skipped.
+     *
+     * @param aiMesh The mesh instance.
+     * @return The index buffer.
+     */
+    private static int[] processIndices(final AIMesh aiMesh) {
+        final int numFaces = aiMesh.mNumFaces();
+        final AIFace.Buffer aiFaces = aiMesh.mFaces();
+        final int[] data = new int[numFaces * 3];
+        int pos = 0;
+        for (int i = 0; i < numFaces; i++) {
+            final IntBuffer buffer = aiFaces.get(i).mIndices();
+            if (buffer.remaining() != 3) continue;
+            data[pos++] = buffer.get(0);
+            data[pos++] = buffer.get(1);
+            data[pos++] = buffer.get(2);
+        }
+        return pos == data.length ? data : Arrays.copyOf(data, pos);
+    }
+
+    /**
+     * Splits the triangles in halves until a range is small enough to match
+     * alone, then merges the smaller edge map into the larger one and pairs
+     * the edges shared across the two halves.
+     */
+    private static final class MatchTask extends RecursiveTask<EdgeMap> {
+
+        private static final int THRESHOLD = 1 << 14;
+
+        private final int[] indices;
+        private final int[] adjacency;
+        private final int from, to;
+
+        MatchTask(final int[] indices, final int[] adjacency, final int from, final int to) {
+            this.indices = indices;
+            this.adjacency = adjacency;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected EdgeMap compute() {
+            if (to - from <= THRESHOLD) return matchEdges(indices, adjacency, from, to);
+
+            final int middle = (from + to) >>> 1;
+            final MatchTask left = new MatchTask(indices, adjacency, from, middle);
+            left.fork();
+            final EdgeMap right = new MatchTask(indices, adjacency, middle, to).compute();
+            final EdgeMap leftEdges = left.join();
+
+            final EdgeMap larger = leftEdges.size() >= right.size() ? leftEdges : right;
+            final EdgeMap smaller = larger == leftEdges ? right : leftEdges;
+            larger.merge(smaller, adjacency);
+
+            return larger;
+        }
+    }
+}
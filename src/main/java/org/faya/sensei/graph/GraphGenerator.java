@@ -0,0 +1,525 @@
+package org.faya.sensei.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Procedural graphs for benchmarks and soak tests. Every random decision is a
+ * hash of the seed and of the cell, row or room it belongs to rather than a
+ * draw from a shared generator, so a seed always gives the same graph however
+ * the work is split across threads.
+ * <p>
+ * Grids are generated row by row in a scratch bitset whose rows never share a
+ * word, which lets the rows run in parallel, then copied into a grid of the
+ * storage selected on the {@link GraphBuilder}.
+ */
+public class GraphGenerator {
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    private static final long OBSTACLES = 0x6F62737463L;
+    private static final long MAZE = 0x6D617A65L;
+    private static final long CAVES = 0x63617665L;
+    private static final long ROOMS = 0x726F6F6DL;
+    private static final long MESH = 0x6D657368L;
+
+    private static final int MIN_ROOM = 3;
+    private static final double JITTER = 0.25;
+
+    private GraphBuilder builder = new GraphBuilder();
+    private long seed;
+    private ForkJoinPool pool;
+
+    // Getter and setter
+
+    /**
+     * Selects the builder the generated graphs are built with, which decides
+     * the grid storage and whether meshes are built in parallel.
+     *
+     * @param builder The builder.
+     * @return The generator instance.
+     */
+    public GraphGenerator builder(final GraphBuilder builder) {
+        this.builder = builder;
+        return this;
+    }
+
+    /**
+     * Selects the seed, the same seed and parameters give the same graph.
+     *
+     * @param seed The seed.
+     * @return The generator instance.
+     */
+    public GraphGenerator seed(final long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Generates on the common fork/join pool.
+     *
+     * @return The generator instance.
+     */
+    public GraphGenerator parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generates on a fork/join pool, the rows of a grid or a mesh are split
+     * across the pool.
+     *
+     * @param pool The pool to use, or null to generate on the calling thread.
+     * @return The generator instance.
+     */
+    public GraphGenerator parallel(final ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    // Function
+
+    /**
+     * Generates a grid where every cell is blocked with a probability.
+     *
+     * @param width   The width of the grid.
+     * @param height  The height of the grid.
+     * @param density The probability of a cell to be blocked.
+     * @return The graph instance.
+     */
+    public AbstractGridGraph obstacles(final int width, final int height, final double density) {
+        return obstacles(width, height, 1, density);
+    }
+
+    /**
+     * Generates a volume where every cell is blocked with a probability.
+     *
+     * @param width   The width of the grid.
+     * @param height  The height of the grid.
+     * @param depth   The depth of the grid.
+     * @param density The probability of a cell to be blocked.
+     * @return The graph instance.
+     */
+    public AbstractGridGraph obstacles(final int width, final int height, final int depth, final double density) {
+        final Cells cells = new Cells(width, height, depth);
+        final long salt = seed ^ OBSTACLES;
+
+        forEach(cells.rows, row -> {
+            for (int x = 0; x < width; x++) {
+                if (!chance(salt, (long) row * width + x, density)) cells.set(x, row);
+            }
+        });
+
+        return write(cells, depth > 1);
+    }
+
+    /**
+     * Generates a perfect maze with the sidewinder algorithm, one corridor
+     * links any two open cells. Rooms sit on the odd rows and columns and walls
+     * on the even ones. A row only depends on its own draws, so rows are carved
+     * in parallel. The first row is a single corridor and the others lean
+     * towards it, the usual bias of the algorithm.
+     *
+     * @param width  The width of the grid, at least 3.
+     * @param height The height of the grid, at least 3.
+     * @return The graph instance.
+     */
+    public AbstractGridGraph maze(final int width, final int height) {
+        if (width < 3 || height < 3) throw new IllegalArgumentException("Maze size must be at least 3.");
+
+        final Cells cells = new Cells(width, height, 1);
+        final int columns = (width - 1) / 2, rows = (height - 1) / 2;
+        final long salt = seed ^ MAZE;
+        // The east links of a run use the low bit of its first room's hash,
+        // the north choice draws from its own stream.
+        final long northSalt = salt ^ GOLDEN;
+
+        forEach(height, y -> {
+            final int row = y / 2;
+            if (y % 2 == 1 && row < rows) {
+                for (int column = 0; column < columns; column++) {
+                    cells.set(2 * column + 1, y);
+                    if (east(salt, columns, row, column)) cells.set(2 * column + 2, y);
+                }
+            } else if (y % 2 == 0 && row >= 1 && row < rows) {
+                // Every run of rooms linked east opens one of its rooms north.
+                for (int start = 0; start < columns; ) {
+                    int end = start;
+                    while (east(salt, columns, row, end)) end++;
+
+                    final int chosen = start + (int) Long.remainderUnsigned(hash(northSalt, (long) row * columns + start), end - start + 1);
+                    cells.set(2 * chosen + 1, y);
+                    start = end + 1;
+                }
+            }
+        });
+
+        return write(cells, false);
+    }
+
+    /**
+     * Generates caves with a cellular automaton. Cells start blocked with a
+     * probability, then at each step a cell becomes open when most of the 3 x 3
+     * cells around it, itself included, are open. Cells outside the grid count
+     * as blocked.
+     *
+     * @param width  The width of the grid.
+     * @param height The height of the grid.
+     * @param fill   The initial probability of a cell to be blocked, about
+     *               0.45 gives connected caves.
+     * @param steps  The number of smoothing steps.
+     * @return The graph instance.
+     */
+    public AbstractGridGraph caves(final int width, final int height, final double fill, final int steps) {
+        return automaton(width, height, 1, fill, steps);
+    }
+
+    /**
+     * Generates caverns in a volume with a cellular automaton, the 3D variant
+     * of {@link #caves(int, int, double, int)} over the 3 x 3 x 3 cells around
+     * a cell.
+     *
+     * @param width  The width of the grid.
+     * @param height The height of the grid.
+     * @param depth  The depth of the grid.
+     * @param fill   The initial probability of a cell to be blocked.
+     * @param steps  The number of smoothing steps.
+     * @return The graph instance.
+     */
+    public AbstractGridGraph caverns(final int width, final int height, final int depth,
+                                     final double fill, final int steps) {
+        return automaton(width, height, depth, fill, steps);
+    }
+
+    /**
+     * Generates rectangular rooms linked in sequence by L-shaped corridors,
+     * each room to the previous one, so every room is reachable. Rooms may
+     * overlap.
+     *
+     * @param width  The width of the grid, at least 5.
+     * @param height The height of the grid, at least 5.
+     * @param count  The number of rooms.
+     * @return The graph instance.
+     */
+    public AbstractGridGraph rooms(final int width, final int height, final int count) {
+        if (width < 5 || height < 5) throw new IllegalArgumentException("Room grid size must be at least 5.");
+        if (count <= 0) throw new IllegalArgumentException("Room count must be positive.");
+
+        final long salt = seed ^ ROOMS;
+        final int maxWidth = Math.max(MIN_ROOM, Math.min(width - 2, width / 8));
+        final int maxHeight = Math.max(MIN_ROOM, Math.min(height - 2, height / 8));
+
+        // Rectangles as x0, y0, x1, y1 inclusive, the rooms then the corridors.
+        final int[] rectangles = new int[(count * 3 - 2) * 4];
+        int previousX = 0, previousY = 0;
+        for (int i = 0; i < count; i++) {
+            final int roomWidth = MIN_ROOM + draw(salt, i * 4L, maxWidth - MIN_ROOM + 1);
+            final int roomHeight = MIN_ROOM + draw(salt, i * 4L + 1, maxHeight - MIN_ROOM + 1);
+            final int x = 1 + draw(salt, i * 4L + 2, width - roomWidth - 1);
+            final int y = 1 + draw(salt, i * 4L + 3, height - roomHeight - 1);
+            rectangle(rectangles, i, x, y, x + roomWidth - 1, y + roomHeight - 1);
+
+            final int centerX = x + roomWidth / 2, centerY = y + roomHeight / 2;
+            if (i > 0) {
+                rectangle(rectangles, count + (i - 1) * 2, previousX, previousY, centerX, previousY);
+                rectangle(rectangles, count + (i - 1) * 2 + 1, centerX, previousY, centerX, centerY);
+            }
+            previousX = centerX;
+            previousY = centerY;
+        }
+
+        final Cells cells = new Cells(width, height, 1);
+        forEach(height, y -> {
+            for (int i = 0; i < rectangles.length; i += 4) {
+                if (y < rectangles[i + 1] || y > rectangles[i + 3]) continue;
+                cells.set(rectangles[i], rectangles[i + 2] + 1, y);
+            }
+        });
+
+        return write(cells, false);
+    }
+
+    /**
+     * Generates a flat navigation mesh on the XZ plane, Y up. A grid of unit
+     * quads with jittered inner vertices is split along a random diagonal per
+     * quad, and quads are left out with a probability to make holes.
+     *
+     * @param columns The number of quads along X.
+     * @param rows    The number of quads along Z.
+     * @param holes   The probability of a quad to be left out.
+     * @return The graph instance.
+     */
+    public MeshGraph navmesh(final int columns, final int rows, final double holes) {
+        return mesh(columns, rows, holes, true);
+    }
+
+    /**
+     * Generates a flat plane of unit quads on the XZ plane, Y up, with
+     * nothing random in it. Vertex {@code x + z * (columns + 1)} sits at
+     * {@code (x, 0, z)} and quad {@code x + z * columns} is split along its
+     * diagonal from {@code (x, z + 1)} to {@code (x + 1, z)} into triangles
+     * {@code 2q}, below the diagonal, and {@code 2q + 1}, above it.
+     *
+     * @param columns The number of quads along X.
+     * @param rows    The number of quads along Z.
+     * @return The graph instance.
+     */
+    public MeshGraph plane(final int columns, final int rows) {
+        return mesh(columns, rows, 0.0, false);
+    }
+
+    private MeshGraph mesh(final int columns, final int rows, final double holes, final boolean irregular) {
+        if (columns <= 0 || rows <= 0) throw new IllegalArgumentException("Mesh size must be positive.");
+        if ((long) columns * rows * 6 > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Mesh exceeds " + Integer.MAX_VALUE / 6 + " quads.");
+
+        final long salt = seed ^ MESH;
+        final int stride = columns + 1;
+        final float[] positions = new float[stride * (rows + 1) * 3];
+        forEach(rows + 1, z -> {
+            for (int x = 0; x <= columns; x++) {
+                final long vertex = (long) z * stride + x;
+                final boolean inner = irregular && x > 0 && x < columns && z > 0 && z < rows;
+                final int offset = (int) vertex * 3;
+
+                positions[offset] = (float) (x + (inner ? jitter(salt, vertex * 2) : 0.0));
+                positions[offset + 2] = (float) (z + (inner ? jitter(salt, vertex * 2 + 1) : 0.0));
+            }
+        });
+
+        // Count the kept quads of each row first, then fill the rows in a
+        // second pass at their offsets.
+        final long quadSalt = salt ^ GOLDEN;
+        final int[] offsets = new int[rows + 1];
+        forEach(rows, z -> {
+            int kept = 0;
+            for (int x = 0; x < columns; x++) {
+                if (!chance(quadSalt, (long) z * columns + x, holes)) kept++;
+            }
+            offsets[z + 1] = kept;
+        });
+        for (int z = 0; z < rows; z++) {
+            offsets[z + 1] += offsets[z];
+        }
+
+        final int[] indices = new int[offsets[rows] * 6];
+        forEach(rows, z -> {
+            int cursor = offsets[z] * 6;
+            for (int x = 0; x < columns; x++) {
+                final long quad = (long) z * columns + x;
+                if (chance(quadSalt, quad, holes)) continue;
+
+                final int a = z * stride + x, b = a + 1, c = a + stride, d = c + 1;
+                if (!irregular || (hash(salt, quad) & 1) == 0) {
+                    cursor = triangle(indices, cursor, a, c, b);
+                    cursor = triangle(indices, cursor, b, c, d);
+                } else {
+                    cursor = triangle(indices, cursor, a, c, d);
+                    cursor = triangle(indices, cursor, a, d, b);
+                }
+            }
+        });
+
+        return builder.build(positions, indices);
+    }
+
+    private AbstractGridGraph automaton(final int width, final int height, final int depth,
+                                        final double fill, final int steps) {
+        Cells cells = new Cells(width, height, depth);
+        final long salt = seed ^ CAVES;
+        final Cells initial = cells;
+        forEach(cells.rows, row -> {
+            for (int x = 0; x < width; x++) {
+                if (!chance(salt, (long) row * width + x, fill)) initial.set(x, row);
+            }
+        });
+
+        // The neighborhood sums are separable, open cells are summed along x,
+        // then those sums along y, then along z, three additions per cell
+        // whatever the size of the neighborhood.
+        final byte[] alongX = new byte[width * height * depth];
+        final byte[] alongY = depth > 1 ? new byte[alongX.length] : alongX;
+        final int majority = depth > 1 ? 14 : 5;
+        for (int step = 0; step < steps; step++) {
+            final Cells source = cells, target = new Cells(width, height, depth);
+
+            forEach(source.rows, row -> {
+                final int offset = row * width;
+                int left = 0, middle = source.get(0, row) ? 1 : 0;
+                for (int x = 0; x < width; x++) {
+                    final int right = x < width - 1 && source.get(x + 1, row) ? 1 : 0;
+                    alongX[offset + x] = (byte) (left + middle + right);
+                    left = middle;
+                    middle = right;
+                }
+            });
+            forEach(source.rows, row -> {
+                final int y = row % height;
+                final int[] sum = new int[width];
+                addRows(sum, alongX, width, y > 0 ? row - 1 : -1, row, y < height - 1 ? row + 1 : -1);
+
+                if (depth > 1) {
+                    for (int x = 0; x < width; x++) {
+                        alongY[row * width + x] = (byte) sum[x];
+                    }
+                } else {
+                    for (int x = 0; x < width; x++) {
+                        if (sum[x] >= majority) target.set(x, row);
+                    }
+                }
+            });
+            if (depth > 1) {
+                final int layer = height;
+                forEach(source.rows, row -> {
+                    final int z = row / height;
+                    final int[] sum = new int[width];
+                    addRows(sum, alongY, width, z > 0 ? row - layer : -1, row, z < depth - 1 ? row + layer : -1);
+
+                    for (int x = 0; x < width; x++) {
+                        if (sum[x] >= majority) target.set(x, row);
+                    }
+                });
+            }
+            cells = target;
+        }
+
+        return write(cells, depth > 1);
+    }
+
+    private static void addRows(final int[] sum, final byte[] sums, final int width,
+                                final int before, final int row, final int after) {
+        for (int x = 0; x < width; x++) {
+            sum[x] = sums[row * width + x];
+        }
+        if (before >= 0) {
+            for (int x = 0; x < width; x++) {
+                sum[x] += sums[before * width + x];
+            }
+        }
+        if (after >= 0) {
+            for (int x = 0; x < width; x++) {
+                sum[x] += sums[after * width + x];
+            }
+        }
+    }
+
+    /**
+     * Copies the open cells into a grid of the builder storage, a new grid
+     * starts open so only the blocked cells are written.
+     */
+    private AbstractGridGraph write(final Cells cells, final boolean volume) {
+        final AbstractGridGraph grid = volume
+                ? builder.build(cells.width, cells.height, cells.depth)
+                : builder.build(cells.width, cells.height);
+
+        for (int row = 0; row < cells.rows; row++) {
+            for (int word = 0; word < cells.rowWords; word++) {
+                final int first = word << 6;
+                final int remaining = cells.width - first;
+                long blocked = ~cells.words[row * cells.rowWords + word] & (remaining >= 64 ? -1L : (1L << remaining) - 1);
+
+                while (blocked != 0) {
+                    grid.setTraversable(row * cells.width + first + Long.numberOfTrailingZeros(blocked), false);
+                    blocked &= blocked - 1;
+                }
+            }
+        }
+
+        return grid;
+    }
+
+    private void forEach(final int count, final IntConsumer action) {
+        if (pool == null) {
+            for (int i = 0; i < count; i++) action.accept(i);
+        } else {
+            pool.submit(() -> IntStream.range(0, count).parallel().forEach(action)).join();
+        }
+    }
+
+    /**
+     * Decides whether a maze room is linked to the room east of it, always in
+     * the first row and never in the last column.
+     */
+    private static boolean east(final long salt, final int columns, final int row, final int column) {
+        return column < columns - 1 && (row == 0 || (hash(salt, (long) row * columns + column) & 1) == 0);
+    }
+
+    private static void rectangle(final int[] rectangles, final int index,
+                                  final int x0, final int y0, final int x1, final int y1) {
+        rectangles[index * 4] = Math.min(x0, x1);
+        rectangles[index * 4 + 1] = Math.min(y0, y1);
+        rectangles[index * 4 + 2] = Math.max(x0, x1);
+        rectangles[index * 4 + 3] = Math.max(y0, y1);
+    }
+
+    private static int triangle(final int[] indices, final int cursor, final int a, final int b, final int c) {
+        indices[cursor] = a;
+        indices[cursor + 1] = b;
+        indices[cursor + 2] = c;
+        return cursor + 3;
+    }
+
+    /**
+     * Mixes a seed and a key with the SplitMix64 finalizer.
+     */
+    private static long hash(final long seed, final long key) {
+        long z = seed + (key + 1) * GOLDEN;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static boolean chance(final long seed, final long key, final double probability) {
+        return (hash(seed, key) >>> 11) * 0x1p-53 < probability;
+    }
+
+    private static int draw(final long seed, final long key, final int bound) {
+        return bound <= 1 ? 0 : (int) Long.remainderUnsigned(hash(seed, key), bound);
+    }
+
+    private static double jitter(final long seed, final long key) {
+        return ((hash(seed, key) >>> 11) * 0x1p-53 * 2.0 - 1.0) * JITTER;
+    }
+
+    /**
+     * Scratch bitset of open cells, a row of cells along x starts on a fresh
+     * word so rows can be written from different threads.
+     */
+    private static final class Cells {
+
+        final int width, height, depth;
+        final int rows, rowWords;
+        final long[] words;
+
+        Cells(final int width, final int height, final int depth) {
+            if (width <= 0 || height <= 0 || depth <= 0)
+                throw new IllegalArgumentException("Grid size must be positive.");
+            if ((long) width * height * depth > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Grid size exceeds " + Integer.MAX_VALUE + " cells.");
+
+            this.width = width;
+            this.height = height;
+            this.depth = depth;
+            this.rows = height * depth;
+            this.rowWords = (width + 63) >>> 6;
+            this.words = new long[rows * rowWords];
+        }
+
+        boolean get(final int x, final int row) {
+            return (words[row * rowWords + (x >>> 6)] & (1L << x)) != 0;
+        }
+
+        void set(final int x, final int row) {
+            words[row * rowWords + (x >>> 6)] |= 1L << x;
+        }
+
+        /**
+         * Sets the cells from {@code from}, inclusive, to {@code to},
+         * exclusive.
+         */
+        void set(final int from, final int to, final int row) {
+            for (int x = from; x < to; x++) {
+                set(x, row);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.faya.sensei.graph;
+
+import java.util.Arrays;
+
+/**
+ * Grid graph storing only the traversability of each cell, one bit per cell in
+ * a {@code long[]}. The cells left and right of a cell are adjacent bits and
+ * are read together from a single word.
+ */
+public class GridGraph extends AbstractGridGraph {
+
+    private final long[] traversable;
+
+    GridGraph(final int width, final int height, final int depth, final int dimensions) {
+        super(width, height, depth, dimensions);
+
+        final int cells = width * height * depth;
+        this.traversable = new long[(cells + 63) >>> 6];
+        Arrays.fill(traversable, -1L);
+        if ((cells & 63) != 0) traversable[traversable.length - 1] = (1L << (cells & 63)) - 1;
+    }
+
+    // Getter and setter
+
+    @Override
+    public boolean isTraversable(final int id) {
+        return (traversable[id >>> 6] & (1L << id)) != 0;
+    }
+
+    @Override
+    public void setTraversable(final int id, final boolean traversable) {
+        if (traversable) this.traversable[id >>> 6] |= 1L << id;
+        else this.traversable[id >>> 6] &= ~(1L << id);
+    }
+
+    /**
+     * Checks the run 64 cells at a time, one window read per step.
+     */
+    @Override
+    public boolean isRunTraversable(final int id, final int count) {
+        for (int i = id, remaining = count; remaining > 0; i += 64, remaining -= 64) {
+            final long mask = remaining >= 64 ? -1L : (1L << remaining) - 1;
+            if ((window(i) & mask) != mask) return false;
+        }
+
+        return true;
+    }
+
+    // Function
+
+    @Override
+    public int getNeighbors(final int id, final int[] neighbors, final double[] costs) {
+        final int x = id % width;
+        final int y = id / width % height;
+        final int z = id / width / height;
+        int count = 0;
+
+        // Bit 0 is the cell on the left and bit 2 the cell on the right, both
+        // come out of the same window read.
+        long row = x > 0 ? window(id - 1) : window(id) << 1;
+        if (x == width - 1) row &= ~4L;
+
+        if ((row & 1L) != 0) count = add(neighbors, costs, count, id - 1);
+        if ((row & 4L) != 0) count = add(neighbors, costs, count, id + 1);
+        if (y > 0 && isTraversable(id - width)) count = add(neighbors, costs, count, id - width);
+        if (y < height - 1 && isTraversable(id + width)) count = add(neighbors, costs, count, id + width);
+
+        final int layer = width * height;
+        if (z > 0 && isTraversable(id - layer)) count = add(neighbors, costs, count, id - layer);
+        if (z < depth - 1 && isTraversable(id + layer)) count = add(neighbors, costs, count, id + layer);
+
+        return count;
+    }
+
+    /**
+     * Reads the 64 traversability bits starting at a cell.
+     *
+     * @param id The first cell.
+     * @return The bits, cell {@code id} in the lowest bit.
+     */
+    long window(final int id) {
+        final int word = id >>> 6;
+        final int shift = id & 63;
+        long bits = traversable[word] >>> shift;
+        if (shift != 0 && word + 1 < traversable.length) bits |= traversable[word + 1] << (64 - shift);
+
+        return bits;
+    }
+
+    private static int add(final int[] neighbors, final double[] costs, final int count, final int id) {
+        neighbors[count] = id;
+        costs[count] = 1.0;
+        return count + 1;
+    }
+}
@@ -0,0 +1,93 @@
+package org.faya.sensei.graph;
+
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.INode;
+
+public class IndexedNode implements INode {
+
+    private final IIndexedGraph graph;
+    private final int id;
+
+    private double gCost, hCost;
+    private INode parent;
+
+    public IndexedNode(final IIndexedGraph graph, final int id) {
+        this.graph = graph;
+        this.id = id;
+    }
+
+    // Getter and setter
+
+    public IIndexedGraph getGraph() {
+        return graph;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Reads the position from the graph into a new array, the handle does not
+     * keep a copy so it stays small however many handles are alive.
+     */
+    @Override
+    public double[] getPosition() {
+        final double[] position = new double[graph.getDimensions()];
+        graph.getPosition(id, position);
+
+        return position;
+    }
+
+    @Override
+    public double getGCost() {
+        return gCost;
+    }
+
+    @Override
+    public void setGCost(final double gCost) {
+        this.gCost = gCost;
+    }
+
+    @Override
+    public double getHCost() {
+        return hCost;
+    }
+
+    @Override
+    public void setHCost(final double hCost) {
+        this.hCost = hCost;
+    }
+
+    @Override
+    public double getFCost() {
+        return gCost + hCost;
+    }
+
+    @Override
+    public INode getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(final INode parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        final IndexedNode other = (IndexedNode) obj;
+        return graph == other.graph && id == other.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(graph) + id;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedNode[" + id + "]";
+    }
+}
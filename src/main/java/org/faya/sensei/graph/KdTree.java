@@ -0,0 +1,291 @@
+package org.faya.sensei.graph;
+
+import org.faya.sensei.IIndexedGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Balanced k-d tree over the node positions of a graph. The tree is implicit:
+ * the node of a range is its middle element, the lower half of the range is
+ * the left subtree and the upper half the right one, so the tree is two flat
+ * arrays. The positions are copied when the tree is built, a graph whose
+ * nodes move needs a new tree.
+ */
+public final class KdTree {
+
+    private static final int THRESHOLD = 1 << 13;
+    private static final int SAMPLES = 256;
+
+    private final int dimensions;
+    private final int[] ids;
+    private final double[] points;
+    private final byte[] axes;
+
+    private KdTree(final int dimensions, final int[] ids, final double[] points, final byte[] axes) {
+        this.dimensions = dimensions;
+        this.ids = ids;
+        this.points = points;
+        this.axes = axes;
+    }
+
+    /**
+     * Builds a tree over every node of a graph.
+     *
+     * @param graph The graph.
+     * @return The tree instance.
+     */
+    public static KdTree from(final IIndexedGraph graph) {
+        return from(graph, null);
+    }
+
+    /**
+     * Builds a tree over every node of a graph, the positions are read and the
+     * ranges are split on a fork/join pool.
+     *
+     * @param graph The graph.
+     * @param pool  The pool to use, or null to build on the calling thread.
+     * @return The tree instance.
+     */
+    public static KdTree from(final IIndexedGraph graph, final ForkJoinPool pool) {
+        final int count = graph.getNodeCount();
+        final int dimensions = graph.getDimensions();
+        final double[] coordinates = new double[count * dimensions];
+        final int[] order = new int[count];
+
+        final Runnable read = () -> {
+            final IntStream range = IntStream.range(0, count);
+            (pool == null ? range : range.parallel()).forEach(id -> {
+                final double[] position = new double[dimensions];
+                graph.getPosition(id, position);
+                System.arraycopy(position, 0, coordinates, id * dimensions, dimensions);
+                order[id] = id;
+            });
+        };
+        final Split split = new Split(coordinates, dimensions, order, new byte[count], 0, count, pool != null);
+        if (pool == null) {
+            read.run();
+            split.compute();
+        } else {
+            pool.submit(read).join();
+            pool.invoke(split);
+        }
+
+        final double[] points = new double[count * dimensions];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(coordinates, order[i] * dimensions, points, i * dimensions, dimensions);
+        }
+
+        return new KdTree(dimensions, order, points, split.axes);
+    }
+
+    // Getter and setter
+
+    public int getSize() {
+        return ids.length;
+    }
+
+    // Function
+
+    /**
+     * Retrieves the node closest to a position.
+     *
+     * @param position The position.
+     * @param filter   The nodes to consider, or null for all.
+     * @return The node id, or -1 if no node passes the filter.
+     */
+    public int nearest(final double[] position, final IntPredicate filter) {
+        final int[] nearest = new int[1];
+        return nearest(position, 1, nearest, filter) == 0 ? -1 : nearest[0];
+    }
+
+    /**
+     * Retrieves the nodes closest to a position, closest first.
+     *
+     * @param position The position.
+     * @param k        The number of nodes to find.
+     * @param nearest  The array receiving the node ids, at least k long.
+     * @param filter   The nodes to consider, or null for all.
+     * @return The number of nodes found, less than k if fewer pass the filter.
+     */
+    public int nearest(final double[] position, final int k, final int[] nearest, final IntPredicate filter) {
+        if (k <= 0) return 0;
+
+        final double[] distances = new double[k];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+
+        return search(0, ids.length, position, k, nearest, distances, 0, filter);
+    }
+
+    /**
+     * Retrieves the nodes within a distance of a position, in no particular
+     * order.
+     *
+     * @param position The position.
+     * @param radius   The distance.
+     * @param within   The array receiving the node ids.
+     * @param filter   The nodes to consider, or null for all.
+     * @return The number of nodes found, only the ones that fit are written.
+     */
+    public int radius(final double[] position, final double radius, final int[] within, final IntPredicate filter) {
+        return collect(0, ids.length, position, radius * radius, within, 0, filter);
+    }
+
+    private int search(final int from, final int to, final double[] position, final int k,
+                       final int[] nearest, final double[] distances, int count, final IntPredicate filter) {
+        if (from >= to) return count;
+
+        final int node = (from + to) >>> 1;
+        final int axis = axes[node];
+        final double delta = position[axis] - points[node * dimensions + axis];
+
+        // Nearer side first, the far side only when the splitting plane is
+        // closer than the k-th node found so far.
+        count = delta < 0.0
+                ? search(from, node, position, k, nearest, distances, count, filter)
+                : search(node + 1, to, position, k, nearest, distances, count, filter);
+
+        if (filter == null || filter.test(ids[node])) {
+            final double distance = distance(node, position);
+            if (count < k || distance < distances[k - 1]) {
+                int i = Math.min(count, k - 1);
+                while (i > 0 && distances[i - 1] > distance) {
+                    distances[i] = distances[i - 1];
+                    nearest[i] = nearest[i - 1];
+                    i--;
+                }
+                distances[i] = distance;
+                nearest[i] = ids[node];
+                count = Math.min(count + 1, k);
+            }
+        }
+
+        if (count < k || delta * delta < distances[k - 1]) {
+            count = delta < 0.0
+                    ? search(node + 1, to, position, k, nearest, distances, count, filter)
+                    : search(from, node, position, k, nearest, distances, count, filter);
+        }
+
+        return count;
+    }
+
+    private int collect(final int from, final int to, final double[] position, final double radius,
+                        final int[] within, int count, final IntPredicate filter) {
+        if (from >= to) return count;
+
+        final int node = (from + to) >>> 1;
+        final int axis = axes[node];
+        final double delta = position[axis] - points[node * dimensions + axis];
+
+        if (distance(node, position) <= radius && (filter == null || filter.test(ids[node]))) {
+            if (count < within.length) within[count] = ids[node];
+            count++;
+        }
+        if (delta < 0.0 || delta * delta <= radius) count = collect(from, node, position, radius, within, count, filter);
+        if (delta >= 0.0 || delta * delta <= radius) count = collect(node + 1, to, position, radius, within, count, filter);
+
+        return count;
+    }
+
+    private double distance(final int node, final double[] position) {
+        double distance = 0.0;
+        for (int axis = 0; axis < dimensions; axis++) {
+            final double delta = position[axis] - points[node * dimensions + axis];
+            distance += delta * delta;
+        }
+
+        return distance;
+    }
+
+    /**
+     * Places the median of a range on the axis of largest spread in the middle
+     * of the range, then splits both halves, in parallel above a threshold.
+     */
+    private static final class Split extends RecursiveAction {
+
+        private final double[] coordinates;
+        private final int dimensions;
+        private final int[] order;
+        private final byte[] axes;
+        private final int from, to;
+        private final boolean parallel;
+
+        Split(final double[] coordinates, final int dimensions, final int[] order, final byte[] axes,
+              final int from, final int to, final boolean parallel) {
+            this.coordinates = coordinates;
+            this.dimensions = dimensions;
+            this.order = order;
+            this.axes = axes;
+            this.from = from;
+            this.to = to;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) return;
+
+            // The spread of large ranges is estimated from evenly spaced
+            // samples, enough to pick an axis without a full pass per level.
+            final int step = Math.max(1, (to - from) / SAMPLES);
+            int axis = 0;
+            double spread = -1.0;
+            for (int d = 0; d < dimensions; d++) {
+                double low = Double.POSITIVE_INFINITY, high = Double.NEGATIVE_INFINITY;
+                for (int i = from; i < to; i += step) {
+                    final double value = coordinates[order[i] * dimensions + d];
+                    low = Math.min(low, value);
+                    high = Math.max(high, value);
+                }
+                if (high - low > spread) {
+                    spread = high - low;
+                    axis = d;
+                }
+            }
+
+            final int middle = (from + to) >>> 1;
+            select(axis, middle);
+            axes[middle] = (byte) axis;
+
+            final Split left = new Split(coordinates, dimensions, order, axes, from, middle, parallel);
+            final Split right = new Split(coordinates, dimensions, order, axes, middle + 1, to, parallel);
+            if (parallel && to - from > THRESHOLD) {
+                invokeAll(left, right);
+            } else {
+                left.compute();
+                right.compute();
+            }
+        }
+
+        /**
+         * Hoare quickselect, leaves the k-th smallest value on the axis at k
+         * with no larger value before it and no smaller value after it.
+         */
+        private void select(final int axis, final int k) {
+            int low = from, high = to - 1;
+            while (low < high) {
+                final double pivot = value(order[(low + high) >>> 1], axis);
+                int i = low, j = high;
+                while (i <= j) {
+                    while (value(order[i], axis) < pivot) i++;
+                    while (value(order[j], axis) > pivot) j--;
+                    if (i <= j) {
+                        final int swap = order[i];
+                        order[i++] = order[j];
+                        order[j--] = swap;
+                    }
+                }
+                if (k <= j) high = j;
+                else if (k >= i) low = i;
+                else return;
+            }
+        }
+
+        private double value(final int id, final int axis) {
+            return coordinates[id * dimensions + axis];
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package org.faya.sensei.graph;
+
+import org.faya.sensei.INode;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Navigation mesh graph stored in compressed sparse row form. Nodes are the
+ * mesh vertices and edges are the triangle edges, the neighbors of vertex
+ * {@code v} are {@code targets[offsets[v]]} up to {@code targets[offsets[v + 1]]}.
+ * The triangle adjacency is kept alongside and exposed as a second graph view
+ * through {@link #getTriangleGraph()}.
+ * <p>
+ * The arrays are held as buffers so a graph built on the heap and a graph
+ * mapped from a file by {@link MeshGraphFile} share the same code.
+ */
+public class MeshGraph extends AbstractIndexedGraph {
+
+    private static final int MAX_WALK = 8;
+    private static final float EPSILON = 1e-6f;
+
+    final FloatBuffer positions;
+    final IntBuffer indices;
+
+    final IntBuffer offsets;
+    final IntBuffer targets;
+    final FloatBuffer weights;
+
+    final IntBuffer adjacency;
+    final FloatBuffer adjacencyWeights;
+
+    final int maxDegree;
+    private final TriangleGraph triangleGraph = new TriangleGraph();
+    private volatile TriangleIndex triangleIndex;
+
+    MeshGraph(final float[] positions, final int[] indices,
+              final int[] offsets, final int[] targets, final float[] weights,
+              final int[] adjacency, final float[] adjacencyWeights) {
+        this(FloatBuffer.wrap(positions), IntBuffer.wrap(indices),
+                IntBuffer.wrap(offsets), IntBuffer.wrap(targets), FloatBuffer.wrap(weights),
+                IntBuffer.wrap(adjacency), FloatBuffer.wrap(adjacencyWeights), maxDegree(offsets));
+    }
+
+    MeshGraph(final FloatBuffer positions, final IntBuffer indices,
+              final IntBuffer offsets, final IntBuffer targets, final FloatBuffer weights,
+              final IntBuffer adjacency, final FloatBuffer adjacencyWeights, final int maxDegree) {
+        this.positions = positions;
+        this.indices = indices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.adjacency = adjacency;
+        this.adjacencyWeights = adjacencyWeights;
+        this.maxDegree = maxDegree;
+    }
+
+    // Getter and setter
+
+    public int getVertexCount() {
+        return positions.capacity() / 3;
+    }
+
+    public int getTriangleCount() {
+        return indices.capacity() / 3;
+    }
+
+    /**
+     * Retrieves a corner vertex of a triangle.
+     *
+     * @param triangle The triangle id.
+     * @param corner   The corner, from zero to two.
+     * @return The vertex id.
+     */
+    public int getTriangleVertex(final int triangle, final int corner) {
+        return indices.get(triangle * 3 + corner);
+    }
+
+    /**
+     * Retrieves the triangle sharing an edge with a triangle, edge {@code i}
+     * runs from corner {@code i} to corner {@code (i + 1) % 3}.
+     *
+     * @param triangle The triangle id.
+     * @param edge     The edge, from zero to two.
+     * @return The neighbor triangle id, or -1 if the edge is on the border.
+     */
+    public int getTriangleNeighbor(final int triangle, final int edge) {
+        return adjacency.get(triangle * 3 + edge);
+    }
+
+    /**
+     * Retrieves the edge a triangle shares with a neighbor, the portal crossed
+     * when moving from one to the other.
+     *
+     * @param triangle The triangle id.
+     * @param neighbor The neighbor triangle id.
+     * @return The edge of the triangle, or -1 if they are not adjacent.
+     */
+    public int getPortalEdge(final int triangle, final int neighbor) {
+        for (int edge = 0; edge < 3; edge++) {
+            if (adjacency.get(triangle * 3 + edge) == neighbor) return edge;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Retrieves the view of the mesh where nodes are triangles placed on their
+     * centroid, used to search for triangle corridors.
+     *
+     * @return The triangle graph.
+     */
+    public TriangleGraph getTriangleGraph() {
+        return triangleGraph;
+    }
+
+    // Function
+
+    @Override
+    public int getNodeCount() {
+        return positions.capacity() / 3;
+    }
+
+    @Override
+    public int getDimensions() {
+        return 3;
+    }
+
+    @Override
+    public int getMaxDegree() {
+        return maxDegree;
+    }
+
+    @Override
+    public void getPosition(final int id, final double[] position) {
+        position[0] = positions.get(id * 3);
+        position[1] = positions.get(id * 3 + 1);
+        position[2] = positions.get(id * 3 + 2);
+    }
+
+    @Override
+    public int getNeighbors(final int id, final int[] neighbors, final double[] costs) {
+        final int start = offsets.get(id);
+        final int count = offsets.get(id + 1) - start;
+        for (int i = 0; i < count; i++) {
+            neighbors[i] = targets.get(start + i);
+            costs[i] = weights.get(start + i);
+        }
+
+        return count;
+    }
+
+    /**
+     * Retrieves the corner closest to a position of the triangle under it.
+     *
+     * @param position The position.
+     * @return The vertex, or null if the mesh is empty.
+     */
+    @Override
+    public INode getNode(final double[] position) {
+        final int triangle = locate(position);
+        if (triangle < 0) return null;
+
+        int closest = -1;
+        double closestDistance = Double.POSITIVE_INFINITY;
+        for (int corner = 0; corner < 3; corner++) {
+            final int vertex = getTriangleVertex(triangle, corner);
+            final double dx = positions.get(vertex * 3) - position[0];
+            final double dy = positions.get(vertex * 3 + 1) - position[1];
+            final double dz = positions.get(vertex * 3 + 2) - position[2];
+            final double distance = dx * dx + dy * dy + dz * dz;
+            if (distance < closestDistance) {
+                closestDistance = distance;
+                closest = vertex;
+            }
+        }
+
+        return getNode(closest);
+    }
+
+    /**
+     * Retrieves the triangle under a position, or the closest triangle when
+     * the position is off the mesh. The mesh is taken as Y up, the triangles
+     * are indexed on the XZ plane on the first call.
+     *
+     * @param position The position.
+     * @return The triangle id, or -1 if the mesh is empty.
+     */
+    public int locate(final double[] position) {
+        final TriangleIndex index = getTriangleIndex();
+        final float x = (float) position[0], y = (float) position[1], z = (float) position[2];
+
+        final int triangle = index.locate(x, y, z);
+        return triangle >= 0 ? triangle : index.nearest(x, y, z);
+    }
+
+    /**
+     * Retrieves the triangle under a position starting from a triangle close
+     * to it, such as where an agent stood on the previous tick. The search
+     * walks across the edge the position lies beyond and falls back to
+     * {@link #locate(double[])} after a few steps or at the mesh border.
+     *
+     * @param position The position.
+     * @param hint     The triangle to start from, or -1 for none.
+     * @return The triangle id, or -1 if the mesh is empty.
+     */
+    public int locate(final double[] position, final int hint) {
+        if (hint < 0 || hint >= getTriangleCount()) return locate(position);
+
+        final float x = (float) position[0], z = (float) position[2];
+        int triangle = hint;
+        for (int step = 0; step < MAX_WALK; step++) {
+            final int edge = outside(triangle, x, z);
+            if (edge < 0) return triangle;
+
+            triangle = getTriangleNeighbor(triangle, edge);
+            if (triangle < 0) break;
+        }
+
+        return locate(position);
+    }
+
+    /**
+     * Checks whether the straight line between two positions stays on the
+     * mesh. Unlike {@link #locate(double[])} the start is not snapped to the
+     * closest triangle, a start off the mesh has no line of sight.
+     *
+     * @param from The start position.
+     * @param to   The end position.
+     * @return {@code true} if the start is on the mesh and the segment never
+     *         crosses the mesh border.
+     */
+    public boolean hasLineOfSight(final double[] from, final double[] to) {
+        final int triangle = getTriangleIndex().locate((float) from[0], (float) from[1], (float) from[2]);
+
+        return triangle >= 0 && raycast(triangle, from, to, null) >= 0;
+    }
+
+    /**
+     * Walks the segment between two positions across the triangles it
+     * crosses, starting from the triangle under the start. The walk runs on
+     * the XZ plane, the height of the positions is ignored and the height of
+     * the hit point is taken from the surface.
+     *
+     * @param triangle The triangle under the start position.
+     * @param from     The start position.
+     * @param to       The end position.
+     * @param hit      The array receiving x, y, z of the end, or of the point
+     *                 where the segment leaves the mesh, may be null.
+     * @return The triangle under the end position, or {@code -(t + 1)} where
+     *         {@code t} is the border triangle the segment leaves the mesh
+     *         from.
+     * @throws IllegalArgumentException If the start triangle is not a
+     *                                  triangle of the mesh.
+     */
+    public int raycast(final int triangle, final double[] from, final double[] to, final double[] hit) {
+        if (triangle < 0 || triangle >= getTriangleCount())
+            throw new IllegalArgumentException("Triangle " + triangle + " is not in the mesh.");
+
+        final double px = from[0], pz = from[2];
+        final double dx = to[0] - px, dz = to[2] - pz;
+
+        int current = triangle;
+        for (int step = 0; step < getTriangleCount(); step++) {
+            // Cyrus-Beck against the three edges, the segment leaves the
+            // triangle at the first edge it moves outward through.
+            final float winding = winding(current);
+            int exitEdge = -1;
+            double exit = 1.0;
+            for (int edge = 0; edge < 3; edge++) {
+                final int a = getTriangleVertex(current, edge) * 3;
+                final int b = getTriangleVertex(current, (edge + 1) % 3) * 3;
+                final double ax = positions.get(a), az = positions.get(a + 2);
+                final double ex = positions.get(b) - ax, ez = positions.get(b + 2) - az;
+
+                final double rate = winding * (ex * dz - dx * ez);
+                if (rate >= 0.0) continue;
+
+                final double t = -winding * (ex * (pz - az) - (px - ax) * ez) / rate;
+                if (t < exit - EPSILON || t < exit + EPSILON && exitEdge >= 0
+                        && getTriangleNeighbor(current, exitEdge) < 0 && getTriangleNeighbor(current, edge) >= 0) {
+                    exit = t;
+                    exitEdge = edge;
+                }
+            }
+
+            if (exitEdge < 0) {
+                setHit(hit, current, to[0], to[2]);
+                return current;
+            }
+
+            final int next = getTriangleNeighbor(current, exitEdge);
+            if (next < 0) {
+                final double t = Math.max(0.0, exit);
+                setHit(hit, current, px + dx * t, pz + dz * t);
+                return -(current + 1);
+            }
+
+            current = next;
+        }
+
+        setHit(hit, current, to[0], to[2]);
+        return current;
+    }
+
+    private void setHit(final double[] hit, final int triangle, final double x, final double z) {
+        if (hit == null) return;
+
+        final float y = TriangleIndex.height(this, triangle, (float) x, (float) z);
+        hit[0] = x;
+        hit[1] = Float.isNaN(y) ? positions.get(getTriangleVertex(triangle, 0) * 3 + 1) : y;
+        hit[2] = z;
+    }
+
+    private float winding(final int triangle) {
+        final int a = getTriangleVertex(triangle, 0) * 3;
+        final int b = getTriangleVertex(triangle, 1) * 3;
+        final int c = getTriangleVertex(triangle, 2) * 3;
+        final float ax = positions.get(a), az = positions.get(a + 2);
+
+        return Math.signum((positions.get(b) - ax) * (positions.get(c + 2) - az)
+                - (positions.get(c) - ax) * (positions.get(b + 2) - az));
+    }
+
+    /**
+     * Finds the edge of a triangle that a point of the XZ plane lies beyond.
+     *
+     * @return The edge, -1 if the point is inside, or the first edge for a
+     *         triangle standing on its side.
+     */
+    private int outside(final int triangle, final float x, final float z) {
+        final int a = getTriangleVertex(triangle, 0) * 3;
+        final int b = getTriangleVertex(triangle, 1) * 3;
+        final int c = getTriangleVertex(triangle, 2) * 3;
+        final float ax = positions.get(a), az = positions.get(a + 2);
+        final float bx = positions.get(b), bz = positions.get(b + 2);
+        final float cx = positions.get(c), cz = positions.get(c + 2);
+
+        final float winding = Math.signum((bx - ax) * (cz - az) - (cx - ax) * (bz - az));
+        if (winding == 0.0f) return 0;
+
+        // Step across the edge the point is farthest beyond, walking toward
+        // the point rather than along the border of the triangle.
+        int edge = -1;
+        float farthest = -EPSILON;
+        final float ab = winding * ((bx - ax) * (z - az) - (x - ax) * (bz - az));
+        if (ab < farthest) {
+            farthest = ab;
+            edge = 0;
+        }
+        final float bc = winding * ((cx - bx) * (z - bz) - (x - bx) * (cz - bz));
+        if (bc < farthest) {
+            farthest = bc;
+            edge = 1;
+        }
+        final float ca = winding * ((ax - cx) * (z - cz) - (x - cx) * (az - cz));
+        if (ca < farthest) edge = 2;
+
+        return edge;
+    }
+
+    TriangleIndex getTriangleIndex() {
+        TriangleIndex index = triangleIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = triangleIndex;
+                if (index == null) triangleIndex = index = new TriangleIndex(this);
+            }
+        }
+
+        return index;
+    }
+
+    private static int maxDegree(final int[] offsets) {
+        int degree = 0;
+        for (int i = 0; i < offsets.length - 1; i++) {
+            degree = Math.max(degree, offsets[i + 1] - offsets[i]);
+        }
+
+        return degree;
+    }
+
+    public class TriangleGraph extends AbstractIndexedGraph {
+
+        private TriangleGraph() { }
+
+        public MeshGraph getMesh() {
+            return MeshGraph.this;
+        }
+
+        @Override
+        public int getNodeCount() {
+            return indices.capacity() / 3;
+        }
+
+        @Override
+        public int getDimensions() {
+            return 3;
+        }
+
+        @Override
+        public int getMaxDegree() {
+            return 3;
+        }
+
+        @Override
+        public void getPosition(final int id, final double[] position) {
+            final int a = indices.get(id * 3) * 3, b = indices.get(id * 3 + 1) * 3, c = indices.get(id * 3 + 2) * 3;
+            position[0] = (positions.get(a) + positions.get(b) + positions.get(c)) / 3.0;
+            position[1] = (positions.get(a + 1) + positions.get(b + 1) + positions.get(c + 1)) / 3.0;
+            position[2] = (positions.get(a + 2) + positions.get(b + 2) + positions.get(c + 2)) / 3.0;
+        }
+
+        @Override
+        public int getNeighbors(final int id, final int[] neighbors, final double[] costs) {
+            int count = 0;
+            for (int i = id * 3; i < id * 3 + 3; i++) {
+                if (adjacency.get(i) < 0) continue;
+                neighbors[count] = adjacency.get(i);
+                costs[count++] = adjacencyWeights.get(i);
+            }
+
+            return count;
+        }
+
+        /**
+         * Retrieves the triangle under a position, or the closest triangle
+         * when the position is off the mesh.
+         *
+         * @param position The position.
+         * @return The triangle, or null if the mesh is empty.
+         */
+        @Override
+        public INode getNode(final double[] position) {
+            final int triangle = locate(position);
+
+            return triangle < 0 ? null : getNode(triangle);
+        }
+
+        /**
+         * Retrieves the triangle under a position starting from a triangle
+         * close to it.
+         *
+         * @param position The position.
+         * @param hint     The triangle to start from, or null for none.
+         * @return The triangle, or null if the mesh is empty.
+         * @see MeshGraph#locate(double[], int)
+         */
+        public INode getNode(final double[] position, final INode hint) {
+            final int triangle = locate(position, hint == null ? -1 : getId(hint));
+
+            return triangle < 0 ? null : getNode(triangle);
+        }
+    }
+}
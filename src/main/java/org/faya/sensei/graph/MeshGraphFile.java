@@ -0,0 +1,148 @@
+package org.faya.sensei.graph;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary format of a built {@link MeshGraph}. The file is a fixed header
+ * followed by the arrays of the graph, little endian and four byte aligned, so
+ * a mapped file is read in place without parsing:
+ *
+ * <pre>
+ * int    magic            "NAVM"
+ * int    version
+ * int    vertex count     V
+ * int    triangle count   T
+ * int    edge count       E, the length of the vertex rows
+ * int    max degree
+ * int[2] reserved
+ * float  positions        [3V]
+ * int    indices          [3T]
+ * int    offsets          [V + 1]
+ * int    targets          [E]
+ * float  weights          [E]
+ * int    adjacency        [3T]
+ * float  adjacency costs  [3T]
+ * </pre>
+ *
+ * The portals of the triangle graph are the edges whose adjacency is not -1,
+ * their end points come from the indices so they are not stored twice.
+ */
+public final class MeshGraphFile {
+
+    public static final int MAGIC = 0x4D56414E;
+    public static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 32;
+
+    private MeshGraphFile() { }
+
+    // Function
+
+    /**
+     * Writes a graph, the file is created or replaced.
+     *
+     * @param graph The mesh graph.
+     * @param file  The file path.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(final MeshGraph graph, final Path file) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(graph.getVertexCount())
+                .putInt(graph.getTriangleCount())
+                .putInt(graph.targets.capacity())
+                .putInt(graph.maxDegree)
+                .putInt(0)
+                .putInt(0)
+                .flip();
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(channel, header);
+            write(channel, graph.positions);
+            write(channel, graph.indices);
+            write(channel, graph.offsets);
+            write(channel, graph.targets);
+            write(channel, graph.weights);
+            write(channel, graph.adjacency);
+            write(channel, graph.adjacencyWeights);
+        }
+    }
+
+    /**
+     * Maps a graph file read only, queries read the arrays straight from the
+     * mapped memory and nothing is copied onto the heap.
+     *
+     * @param file The file path.
+     * @return The mesh graph.
+     * @throws IOException If the file cannot be mapped or is not a graph file.
+     */
+    public static MeshGraph map(final Path file) throws IOException {
+        final ByteBuffer buffer;
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Unsupported mesh graph file size: " + channel.size());
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        if (buffer.getInt(0) != MAGIC) throw new IOException("Not a mesh graph file.");
+        if (buffer.getInt(4) != VERSION)
+            throw new IOException("Unsupported mesh graph version: " + buffer.getInt(4));
+
+        final int vertexCount = buffer.getInt(8);
+        final int triangleCount = buffer.getInt(12);
+        final int edgeCount = buffer.getInt(16);
+        final int maxDegree = buffer.getInt(20);
+
+        final long size = HEADER_SIZE + 4L * (3L * vertexCount + 3L * triangleCount + (vertexCount + 1L)
+                + 2L * edgeCount + 6L * triangleCount);
+        if (vertexCount < 0 || triangleCount < 0 || edgeCount < 0 || size != buffer.capacity())
+            throw new IOException("Corrupted mesh graph file.");
+
+        final int[] offset = {HEADER_SIZE};
+        return new MeshGraph(
+                floats(buffer, offset, vertexCount * 3),
+                ints(buffer, offset, triangleCount * 3),
+                ints(buffer, offset, vertexCount + 1),
+                ints(buffer, offset, edgeCount),
+                floats(buffer, offset, edgeCount),
+                ints(buffer, offset, triangleCount * 3),
+                floats(buffer, offset, triangleCount * 3),
+                maxDegree);
+    }
+
+    private static IntBuffer ints(final ByteBuffer buffer, final int[] offset, final int count) {
+        final IntBuffer section = buffer.slice(offset[0], count * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        offset[0] += count * 4;
+        return section;
+    }
+
+    private static FloatBuffer floats(final ByteBuffer buffer, final int[] offset, final int count) {
+        final FloatBuffer section = buffer.slice(offset[0], count * 4).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        offset[0] += count * 4;
+        return section;
+    }
+
+    private static void write(final FileChannel channel, final Buffer section) throws IOException {
+        final ByteBuffer bytes;
+        if (section instanceof ByteBuffer byteSection) {
+            bytes = byteSection;
+        } else {
+            bytes = ByteBuffer.allocate(section.capacity() * 4).order(ByteOrder.LITTLE_ENDIAN);
+            if (section instanceof IntBuffer ints) bytes.asIntBuffer().put(ints.duplicate().clear());
+            else bytes.asFloatBuffer().put(((FloatBuffer) section).duplicate().clear());
+        }
+
+        while (bytes.hasRemaining()) channel.write(bytes);
+    }
+}
@@ -0,0 +1,168 @@
+package org.faya.sensei.graph;
+
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.assimp.AIMesh;
+import org.lwjgl.assimp.AIScene;
+import org.lwjgl.assimp.Assimp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Imports meshes with Assimp straight from memory and keeps the imported
+ * scenes keyed by the SHA-256 of their content, so the same asset is imported
+ * once however many times and from however many threads it is requested.
+ * The scenes belong to the loader and are released when it is closed, meshes
+ * taken from them must not be used afterwards.
+ */
+public final class MeshLoader implements AutoCloseable {
+
+    public static final int DEFAULT_FLAGS = Assimp.aiProcess_JoinIdenticalVertices | Assimp.aiProcess_Triangulate;
+
+    private final int flags;
+    private final Map<String, CompletableFuture<AIScene>> scenes = new ConcurrentHashMap<>();
+
+    public MeshLoader() {
+        this(DEFAULT_FLAGS);
+    }
+
+    /**
+     * @param flags The Assimp post processing flags.
+     */
+    public MeshLoader(final int flags) {
+        this.flags = flags;
+    }
+
+    // Getter and setter
+
+    /**
+     * Retrieves a mesh of a scene.
+     *
+     * @param scene The scene.
+     * @param index The mesh index.
+     * @return The mesh.
+     */
+    public static AIMesh getMesh(final AIScene scene, final int index) {
+        final PointerBuffer meshes = scene.mMeshes();
+        if (meshes == null || index < 0 || index >= scene.mNumMeshes())
+            throw new IndexOutOfBoundsException("Mesh " + index + " is not in the scene.");
+
+        return AIMesh.create(meshes.get(index));
+    }
+
+    public int getSceneCount() {
+        return scenes.size();
+    }
+
+    // Function
+
+    /**
+     * Imports a scene from the class path.
+     *
+     * @param name The resource name, its extension is the format hint.
+     * @return The scene.
+     */
+    public AIScene loadResource(final String name) {
+        try (final InputStream inputStream = MeshLoader.class.getClassLoader().getResourceAsStream(name)) {
+            if (inputStream == null) throw new IllegalArgumentException("Resource " + name + " not found.");
+
+            return load(inputStream, hint(name));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Imports a scene from a stream, the stream is read to the end.
+     *
+     * @param inputStream The stream.
+     * @param hint        The file extension of the format, such as "glb".
+     * @return The scene.
+     * @throws IOException If the stream cannot be read.
+     */
+    public AIScene load(final InputStream inputStream, final String hint) throws IOException {
+        final byte[] bytes = inputStream.readAllBytes();
+        return load(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip(), hint);
+    }
+
+    /**
+     * Imports a scene from memory, content already imported returns the cached
+     * scene. Assimp only reads the buffer during the import.
+     *
+     * @param data The content, a direct buffer read from its position.
+     * @param hint The file extension of the format, such as "glb".
+     * @return The scene.
+     */
+    public AIScene load(final ByteBuffer data, final String hint) {
+        final String key = hash(data) + "." + hint;
+
+        final CompletableFuture<AIScene> created = new CompletableFuture<>();
+        final CompletableFuture<AIScene> existing = scenes.putIfAbsent(key, created);
+        if (existing != null) return existing.join();
+
+        // Imported outside of the map so other assets load concurrently.
+        try {
+            created.complete(importScene(data, hint, flags));
+        } catch (final RuntimeException e) {
+            scenes.remove(key);
+            created.completeExceptionally(e);
+            throw e;
+        }
+
+        return created.join();
+    }
+
+    /**
+     * Imports a scene from memory without caching it, the caller releases it
+     * with {@link Assimp#aiReleaseImport(AIScene)}.
+     *
+     * @param data  The content, a direct buffer read from its position.
+     * @param hint  The file extension of the format, such as "glb".
+     * @param flags The Assimp post processing flags.
+     * @return The scene.
+     */
+    public static AIScene importScene(final ByteBuffer data, final String hint, final int flags) {
+        if (!data.isDirect()) throw new IllegalArgumentException("Assimp imports from direct buffers only.");
+
+        final AIScene scene = Assimp.aiImportFileFromMemory(data, flags, hint);
+        if (scene == null) throw new IllegalStateException("Failed to import mesh: " + Assimp.aiGetErrorString());
+
+        return scene;
+    }
+
+    /**
+     * Releases every cached scene.
+     */
+    @Override
+    public void close() {
+        for (final CompletableFuture<AIScene> scene : scenes.values()) {
+            final AIScene imported = scene.getNow(null);
+            if (imported != null) Assimp.aiReleaseImport(imported);
+        }
+
+        scenes.clear();
+    }
+
+    private static String hash(final ByteBuffer data) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(data.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hint(final String name) {
+        final int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1);
+    }
+}
@@ -0,0 +1,93 @@
+package org.faya.sensei.graph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reader of the grid maps of the Moving AI benchmark sets, such as
+ * {@code arena.map}. The file is a short header followed by one line per
+ * row, {@code .}, {@code G} and {@code S} are traversable and every other
+ * character is blocked. Row {@code y} of the file is row {@code y} of the
+ * grid. The benchmark scenarios move on eight neighbors, search them on
+ * {@link AbstractGridGraph#getOctileGraph()}.
+ *
+ * @see MovingAiScenario
+ */
+public final class MovingAiMap {
+
+    private MovingAiMap() { }
+
+    /**
+     * Reads a map into a grid of the default storage.
+     *
+     * @param file The map file.
+     * @return The graph instance.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static AbstractGridGraph read(final Path file) throws IOException {
+        return read(file, new GraphBuilder());
+    }
+
+    /**
+     * Reads a map into a grid.
+     *
+     * @param file    The map file.
+     * @param builder The builder creating the grid, decides its storage.
+     * @return The graph instance.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static AbstractGridGraph read(final Path file, final GraphBuilder builder) throws IOException {
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            return read(reader, builder);
+        }
+    }
+
+    /**
+     * Reads a map into a grid.
+     *
+     * @param reader  The reader, positioned on the header.
+     * @param builder The builder creating the grid, decides its storage.
+     * @return The graph instance.
+     * @throws IOException If the content cannot be read or is malformed.
+     */
+    public static AbstractGridGraph read(final BufferedReader reader, final GraphBuilder builder) throws IOException {
+        int width = -1, height = -1;
+        String line;
+        while ((line = reader.readLine()) != null && !line.trim().equals("map")) {
+            final String[] fields = line.trim().split("\\s+");
+            if (fields.length != 2) continue;
+
+            switch (fields[0]) {
+                case "width" -> width = parse(fields[1]);
+                case "height" -> height = parse(fields[1]);
+                default -> { }
+            }
+        }
+        if (line == null) throw new IOException("Missing map section.");
+        if (width <= 0 || height <= 0) throw new IOException("Missing or invalid map size.");
+
+        final AbstractGridGraph grid = builder.build(width, height);
+        for (int y = 0; y < height; y++) {
+            line = reader.readLine();
+            if (line == null || line.length() < width) throw new IOException("Row " + y + " is shorter than " + width + ".");
+
+            for (int x = 0; x < width; x++) {
+                final char cell = line.charAt(x);
+                if (cell != '.' && cell != 'G' && cell != 'S') grid.setTraversable(x, y, false);
+            }
+        }
+
+        return grid;
+    }
+
+    private static int parse(final String value) throws IOException {
+        try {
+            return Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            throw new IOException("Invalid number " + value + ".", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.faya.sensei.graph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One query of a Moving AI scenario file, such as {@code arena.map.scen}.
+ * The optimal length is the cost of the shortest eight-connected path where
+ * a diagonal step costs {@code sqrt(2)} and corners are never cut.
+ *
+ * @param bucket        The difficulty bucket, queries of a bucket have
+ *                      optimal lengths in the same range.
+ * @param map           The name of the map file.
+ * @param width         The width of the map.
+ * @param height        The height of the map.
+ * @param startX        The start column.
+ * @param startY        The start row.
+ * @param goalX         The goal column.
+ * @param goalY         The goal row.
+ * @param optimalLength The length of the shortest path.
+ */
+public record MovingAiScenario(int bucket, String map, int width, int height,
+                               int startX, int startY, int goalX, int goalY, double optimalLength) {
+
+    /**
+     * Reads every query of a scenario file.
+     *
+     * @param file The scenario file.
+     * @return The queries in file order.
+     * @throws IOException If the file cannot be read or is malformed.
+     */
+    public static List<MovingAiScenario> read(final Path file) throws IOException {
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * Reads every query of a scenario.
+     *
+     * @param reader The reader, positioned on the version line.
+     * @return The queries in order.
+     * @throws IOException If the content cannot be read or is malformed.
+     */
+    public static List<MovingAiScenario> read(final BufferedReader reader) throws IOException {
+        final List<MovingAiScenario> scenarios = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("version")) continue;
+
+            final String[] fields = line.trim().split("\\s+");
+            if (fields.length != 9) throw new IOException("Expected 9 fields in " + line + ".");
+
+            try {
+                scenarios.add(new MovingAiScenario(Integer.parseInt(fields[0]), fields[1],
+                        Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                        Integer.parseInt(fields[4]), Integer.parseInt(fields[5]),
+                        Integer.parseInt(fields[6]), Integer.parseInt(fields[7]), Double.parseDouble(fields[8])));
+            } catch (final NumberFormatException e) {
+                throw new IOException("Invalid number in " + line + ".", e);
+            }
+        }
+
+        return scenarios;
+    }
+
+    // Function
+
+    /**
+     * Retrieves the start cell in a grid read from the map.
+     *
+     * @param grid The grid.
+     * @return The cell id.
+     */
+    public int getStart(final AbstractGridGraph grid) {
+        return grid.getId(startX, startY, 0);
+    }
+
+    /**
+     * Retrieves the goal cell in a grid read from the map.
+     *
+     * @param grid The grid.
+     * @return The cell id.
+     */
+    public int getGoal(final AbstractGridGraph grid) {
+        return grid.getId(goalX, goalY, 0);
+    }
+}
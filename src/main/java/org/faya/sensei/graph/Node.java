@@ -0,0 +1,79 @@
+package org.faya.sensei.graph;
+
+import org.faya.sensei.INode;
+
+import java.util.Arrays;
+
+/**
+ * Standalone node holding its own position, for graphs built by hand on top
+ * of {@link org.faya.sensei.IGraph} rather than indexed by id.
+ */
+public class Node implements INode {
+
+    private final double[] position;
+    private double gCost, hCost;
+    private INode parent;
+
+    /**
+     * @param position The position of the node.
+     */
+    public Node(final double[] position) {
+        this.position = position;
+    }
+
+    /**
+     * @param position The position of the node.
+     * @param gCost    The initial cost from the start node.
+     */
+    public Node(final double[] position, final double gCost) {
+        this.position = position;
+        this.gCost = gCost;
+    }
+
+    // Getter and setter
+
+    @Override
+    public double[] getPosition() {
+        return position;
+    }
+
+    @Override
+    public double getGCost() {
+        return gCost;
+    }
+
+    @Override
+    public void setGCost(final double gCost) {
+        this.gCost = gCost;
+    }
+
+    @Override
+    public double getHCost() {
+        return hCost;
+    }
+
+    @Override
+    public void setHCost(final double hCost) {
+        this.hCost = hCost;
+    }
+
+    @Override
+    public double getFCost() {
+        return gCost + hCost;
+    }
+
+    @Override
+    public INode getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(final INode parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public String toString() {
+        return "Node" + Arrays.toString(position);
+    }
+}
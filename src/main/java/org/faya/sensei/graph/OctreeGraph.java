@@ -0,0 +1,292 @@
+package org.faya.sensei.graph;
+
+import org.faya.sensei.INode;
+
+import java.util.Arrays;
+
+/**
+ * Sparse voxel octree over a 3D grid. Every cube of free cells that the octree
+ * can keep whole becomes a single node placed on its center, blocked space is
+ * not stored at all. Two nodes are neighbors when their cubes share a face and
+ * the edge cost is the distance between their centers, so costs stay in grid
+ * units and the Euclidean heuristic remains admissible.
+ */
+public class OctreeGraph extends AbstractIndexedGraph {
+
+    static final int BLOCKED = -1;
+
+    private final int rootSize;
+    private final int[] tree;
+    private final int root;
+
+    private final int[] leaves;
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final float[] weights;
+    private final int maxDegree;
+
+    /**
+     * @param rootSize The edge length of the root cube, a power of two.
+     * @param tree     Eight child codes per inner node.
+     * @param root     The code of the root.
+     * @param leaves   Four values per leaf: x, y, z of the lowest corner and
+     *                 the edge length.
+     */
+    OctreeGraph(final int rootSize, final int[] tree, final int root, final int[] leaves) {
+        this.rootSize = rootSize;
+        this.tree = tree;
+        this.root = root;
+        this.leaves = leaves;
+
+        final int leafCount = leaves.length / 4;
+        final IntList adjacency = new IntList();
+        offsets = new int[leafCount + 1];
+        int degree = 0;
+
+        for (int leaf = 0; leaf < leafCount; leaf++) {
+            final int x = leaves[leaf * 4], y = leaves[leaf * 4 + 1], z = leaves[leaf * 4 + 2];
+            final int size = leaves[leaf * 4 + 3];
+
+            // One slab of thickness one outside each face of the cube.
+            collect(root, 0, 0, 0, rootSize, x - 1, y, z, x, y + size, z + size, adjacency);
+            collect(root, 0, 0, 0, rootSize, x + size, y, z, x + size + 1, y + size, z + size, adjacency);
+            collect(root, 0, 0, 0, rootSize, x, y - 1, z, x + size, y, z + size, adjacency);
+            collect(root, 0, 0, 0, rootSize, x, y + size, z, x + size, y + size + 1, z + size, adjacency);
+            collect(root, 0, 0, 0, rootSize, x, y, z - 1, x + size, y + size, z, adjacency);
+            collect(root, 0, 0, 0, rootSize, x, y, z + size, x + size, y + size, z + size + 1, adjacency);
+
+            offsets[leaf + 1] = adjacency.size();
+            degree = Math.max(degree, offsets[leaf + 1] - offsets[leaf]);
+        }
+
+        targets = adjacency.toArray();
+        weights = new float[targets.length];
+        final double[] a = new double[3], b = new double[3];
+        for (int leaf = 0; leaf < leafCount; leaf++) {
+            getPosition(leaf, a);
+            for (int i = offsets[leaf]; i < offsets[leaf + 1]; i++) {
+                getPosition(targets[i], b);
+                weights[i] = (float) Math.sqrt((a[0] - b[0]) * (a[0] - b[0])
+                        + (a[1] - b[1]) * (a[1] - b[1])
+                        + (a[2] - b[2]) * (a[2] - b[2]));
+            }
+        }
+        maxDegree = degree;
+    }
+
+    /**
+     * Converts a grid into an octree, cells outside the grid count as blocked.
+     *
+     * @param grid The grid graph.
+     * @return The octree graph.
+     */
+    public static OctreeGraph from(final AbstractGridGraph grid) {
+        final int rootSize = Integer.highestOneBit(Math.max(1,
+                Math.max(grid.getWidth(), Math.max(grid.getHeight(), grid.getDepth())) * 2 - 1));
+
+        final IntList tree = new IntList();
+        final IntList leaves = new IntList();
+        final int root = subdivide(grid, 0, 0, 0, rootSize, tree, leaves);
+
+        return new OctreeGraph(rootSize, tree.toArray(), root, leaves.toArray());
+    }
+
+    // Getter and setter
+
+    /**
+     * Retrieves the edge length of the cube covered by a node.
+     *
+     * @param id The id of the node.
+     * @return The edge length in cells.
+     */
+    public int getSize(final int id) {
+        return leaves[id * 4 + 3];
+    }
+
+    // Function
+
+    @Override
+    public int getNodeCount() {
+        return leaves.length / 4;
+    }
+
+    @Override
+    public int getDimensions() {
+        return 3;
+    }
+
+    @Override
+    public int getMaxDegree() {
+        return maxDegree;
+    }
+
+    /**
+     * Writes the center of the cube, a cube of a single cell sits on the same
+     * position as the cell in the grid.
+     */
+    @Override
+    public void getPosition(final int id, final double[] position) {
+        final double half = (leaves[id * 4 + 3] - 1) / 2.0;
+        position[0] = leaves[id * 4] + half;
+        position[1] = leaves[id * 4 + 1] + half;
+        position[2] = leaves[id * 4 + 2] + half;
+    }
+
+    @Override
+    public int getNeighbors(final int id, final int[] neighbors, final double[] costs) {
+        final int start = offsets[id];
+        final int count = offsets[id + 1] - start;
+        for (int i = 0; i < count; i++) {
+            neighbors[i] = targets[start + i];
+            costs[i] = weights[start + i];
+        }
+
+        return count;
+    }
+
+    /**
+     * Retrieves the node whose cube contains a position.
+     *
+     * @param position The position in grid units.
+     * @return The node, or null if the position is blocked or outside.
+     */
+    @Override
+    public INode getNode(final double[] position) {
+        final int leaf = locate((int) Math.floor(position[0] + 0.5),
+                (int) Math.floor(position[1] + 0.5),
+                (int) Math.floor(position[2] + 0.5));
+
+        return leaf < 0 ? null : getNode(leaf);
+    }
+
+    /**
+     * Retrieves the node whose cube contains a cell.
+     *
+     * @param x The x of the cell.
+     * @param y The y of the cell.
+     * @param z The z of the cell.
+     * @return The node id, or -1 if the cell is blocked or outside.
+     */
+    public int locate(final int x, final int y, final int z) {
+        if (x < 0 || y < 0 || z < 0 || x >= rootSize || y >= rootSize || z >= rootSize) return -1;
+
+        int code = root;
+        int size = rootSize;
+        while (code >= 0) {
+            size >>= 1;
+            final int child = ((x & size) != 0 ? 1 : 0) | ((y & size) != 0 ? 2 : 0) | ((z & size) != 0 ? 4 : 0);
+            code = tree[code * 8 + child];
+        }
+
+        return code == BLOCKED ? -1 : leaf(code);
+    }
+
+    private static int subdivide(final AbstractGridGraph grid, final int x, final int y, final int z, final int size,
+                                 final IntList tree, final IntList leaves) {
+        final int uniform = uniform(grid, x, y, z, size);
+        if (uniform == 0) return BLOCKED;
+        if (uniform > 0 || size == 1) {
+            leaves.add(x);
+            leaves.add(y);
+            leaves.add(z);
+            leaves.add(size);
+            return leafCode(leaves.size() / 4 - 1);
+        }
+
+        final int node = tree.size() / 8;
+        for (int i = 0; i < 8; i++) tree.add(BLOCKED);
+
+        final int half = size >> 1;
+        for (int child = 0; child < 8; child++) {
+            final int code = subdivide(grid,
+                    x + ((child & 1) != 0 ? half : 0),
+                    y + ((child & 2) != 0 ? half : 0),
+                    z + ((child & 4) != 0 ? half : 0),
+                    half, tree, leaves);
+            tree.set(node * 8 + child, code);
+        }
+
+        return node;
+    }
+
+    /**
+     * Scans a cube of the grid and stops as soon as both open and blocked
+     * cells have been seen.
+     *
+     * @return 1 if every cell is open, 0 if every cell is blocked, -1 if mixed.
+     */
+    private static int uniform(final AbstractGridGraph grid, final int x, final int y, final int z, final int size) {
+        boolean open = false, blocked = false;
+        for (int k = z; k < z + size; k++) {
+            for (int j = y; j < y + size; j++) {
+                for (int i = x; i < x + size; i++) {
+                    if (grid.isTraversable(i, j, k)) open = true;
+                    else blocked = true;
+                    if (open && blocked) return -1;
+                }
+            }
+        }
+
+        return open ? 1 : 0;
+    }
+
+    /**
+     * Collects the leaves of a subtree overlapping a box, bounds are exclusive
+     * on the high side.
+     */
+    private void collect(final int code, final int x, final int y, final int z, final int size,
+                         final int minX, final int minY, final int minZ,
+                         final int maxX, final int maxY, final int maxZ, final IntList out) {
+        if (code == BLOCKED) return;
+        if (x >= maxX || y >= maxY || z >= maxZ || x + size <= minX || y + size <= minY || z + size <= minZ) return;
+
+        if (code < BLOCKED) {
+            out.add(leaf(code));
+            return;
+        }
+
+        final int half = size >> 1;
+        for (int child = 0; child < 8; child++) {
+            collect(tree[code * 8 + child],
+                    x + ((child & 1) != 0 ? half : 0),
+                    y + ((child & 2) != 0 ? half : 0),
+                    z + ((child & 4) != 0 ? half : 0),
+                    half, minX, minY, minZ, maxX, maxY, maxZ, out);
+        }
+    }
+
+    private static int leafCode(final int leaf) {
+        return -leaf - 2;
+    }
+
+    private static int leaf(final int code) {
+        return -code - 2;
+    }
+
+    /**
+     * Minimal growable int array used while building.
+     */
+    static final class IntList {
+
+        private int[] values = new int[64];
+        private int size;
+
+        void add(final int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        void set(final int index, final int value) {
+            values[index] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.faya.sensei.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Byte storage outside the Java heap, addressed with a long offset. The memory
+ * is split into pages of {@code 2^30} bytes so it is not bound by the int
+ * index of a single {@link ByteBuffer}, values never straddle two pages as long
+ * as they are aligned to their own size.
+ */
+public final class OffHeapBuffer {
+
+    private static final int PAGE_SHIFT = 30;
+    private static final long PAGE_MASK = (1L << PAGE_SHIFT) - 1;
+
+    private final ByteBuffer[] pages;
+    private final long capacity;
+
+    private OffHeapBuffer(final ByteBuffer[] pages, final long capacity) {
+        this.pages = pages;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Allocates zeroed direct memory.
+     *
+     * @param capacity The number of bytes.
+     * @return The buffer instance.
+     */
+    public static OffHeapBuffer allocate(final long capacity) {
+        final ByteBuffer[] pages = new ByteBuffer[pageCount(capacity)];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = ByteBuffer.allocateDirect(pageSize(capacity, i)).order(ByteOrder.nativeOrder());
+        }
+
+        return new OffHeapBuffer(pages, capacity);
+    }
+
+    /**
+     * Maps a file into memory, the file is created or extended to the capacity
+     * when needed. Writes go back to the file.
+     *
+     * @param file     The file path.
+     * @param capacity The number of bytes.
+     * @return The buffer instance.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static OffHeapBuffer map(final Path file, final long capacity) throws IOException {
+        final ByteBuffer[] pages = new ByteBuffer[pageCount(capacity)];
+        try (final FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < pages.length; i++) {
+                pages[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i << PAGE_SHIFT, pageSize(capacity, i))
+                        .order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        return new OffHeapBuffer(pages, capacity);
+    }
+
+    // Getter and setter
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public byte getByte(final long offset) {
+        return pages[(int) (offset >>> PAGE_SHIFT)].get((int) (offset & PAGE_MASK));
+    }
+
+    public void putByte(final long offset, final byte value) {
+        pages[(int) (offset >>> PAGE_SHIFT)].put((int) (offset & PAGE_MASK), value);
+    }
+
+    public int getInt(final long offset) {
+        return pages[(int) (offset >>> PAGE_SHIFT)].getInt((int) (offset & PAGE_MASK));
+    }
+
+    public void putInt(final long offset, final int value) {
+        pages[(int) (offset >>> PAGE_SHIFT)].putInt((int) (offset & PAGE_MASK), value);
+    }
+
+    public double getDouble(final long offset) {
+        return pages[(int) (offset >>> PAGE_SHIFT)].getDouble((int) (offset & PAGE_MASK));
+    }
+
+    public void putDouble(final long offset, final double value) {
+        pages[(int) (offset >>> PAGE_SHIFT)].putDouble((int) (offset & PAGE_MASK), value);
+    }
+
+    // Function
+
+    /**
+     * Sets every byte of the buffer to a value.
+     *
+     * @param value The value.
+     */
+    public void fill(final byte value) {
+        final byte[] chunk = new byte[1 << 16];
+        Arrays.fill(chunk, value);
+        for (final ByteBuffer page : pages) {
+            final ByteBuffer view = page.duplicate().clear();
+            while (view.hasRemaining()) {
+                view.put(chunk, 0, Math.min(chunk.length, view.remaining()));
+            }
+        }
+    }
+
+    private static int pageCount(final long capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative.");
+        return (int) ((capacity + PAGE_MASK) >>> PAGE_SHIFT);
+    }
+
+    private static int pageSize(final long capacity, final int page) {
+        return (int) Math.min(1L << PAGE_SHIFT, capacity - ((long) page << PAGE_SHIFT));
+    }
+}
@@ -0,0 +1,58 @@
+package org.faya.sensei.graph;
+
+/**
+ * Grid graph keeping one byte per cell outside the Java heap. The byte is the
+ * cost of entering the cell, from 1 to 255, and 0 marks the cell as not
+ * traversable, so traversability and cost come out of a single read.
+ */
+public class OffHeapGridGraph extends AbstractGridGraph {
+
+    public static final int BLOCKED = 0;
+    public static final int DEFAULT_COST = 1;
+
+    private final OffHeapBuffer cells;
+
+    OffHeapGridGraph(final int width, final int height, final int depth, final int dimensions,
+                     final OffHeapBuffer cells) {
+        super(width, height, depth, dimensions);
+
+        if (cells.getCapacity() < (long) width * height * depth)
+            throw new IllegalArgumentException("Cell buffer is smaller than the grid.");
+
+        this.cells = cells;
+    }
+
+    // Getter and setter
+
+    @Override
+    public boolean isTraversable(final int id) {
+        return cells.getByte(id) != BLOCKED;
+    }
+
+    @Override
+    public void setTraversable(final int id, final boolean traversable) {
+        if (!traversable) cells.putByte(id, (byte) BLOCKED);
+        else if (!isTraversable(id)) cells.putByte(id, (byte) DEFAULT_COST);
+    }
+
+    @Override
+    public double getCost(final int id) {
+        return Byte.toUnsignedInt(cells.getByte(id));
+    }
+
+    /**
+     * Sets the cost of entering a cell.
+     *
+     * @param id   The id of the cell.
+     * @param cost The cost from 1 to 255, or {@link #BLOCKED}.
+     */
+    public void setCost(final int id, final int cost) {
+        if (cost < 0 || cost > 255) throw new IllegalArgumentException("Cost must be between 0 and 255.");
+        cells.putByte(id, (byte) cost);
+    }
+
+    public void setCost(final int x, final int y, final int z, final int cost) {
+        if (!contains(x, y, z)) throw new IndexOutOfBoundsException("Cell outside of the grid.");
+        setCost(getId(x, y, z), cost);
+    }
+}
@@ -0,0 +1,301 @@
+package org.faya.sensei.graph;
+
+import java.util.Arrays;
+
+/**
+ * Uniform grid over the triangles of a mesh projected on the XZ plane, the
+ * mesh is taken as Y up like glTF. Every cell lists the triangles whose bounds
+ * overlap it, so locating a point reads a single cell and only checks the few
+ * triangles listed there.
+ */
+final class TriangleIndex {
+
+    private static final float EPSILON = 1e-5f;
+
+    private final MeshGraph mesh;
+
+    private final float minX, minZ;
+    private final float cellSize;
+    private final int columns, rows;
+
+    private final int[] offsets;
+    private final int[] triangles;
+    private final float[] heights;
+
+    TriangleIndex(final MeshGraph mesh) {
+        this.mesh = mesh;
+
+        final int triangleCount = mesh.getTriangleCount();
+        final float[] bounds = new float[triangleCount * 6];
+        float lowX = Float.POSITIVE_INFINITY, lowZ = Float.POSITIVE_INFINITY;
+        float highX = Float.NEGATIVE_INFINITY, highZ = Float.NEGATIVE_INFINITY;
+        double extent = 0.0;
+        for (int t = 0; t < triangleCount; t++) {
+            float x0 = Float.POSITIVE_INFINITY, y0 = Float.POSITIVE_INFINITY, z0 = Float.POSITIVE_INFINITY;
+            float x1 = Float.NEGATIVE_INFINITY, y1 = Float.NEGATIVE_INFINITY, z1 = Float.NEGATIVE_INFINITY;
+            for (int corner = 0; corner < 3; corner++) {
+                final int vertex = mesh.getTriangleVertex(t, corner);
+                final float x = mesh.positions.get(vertex * 3);
+                final float y = mesh.positions.get(vertex * 3 + 1);
+                final float z = mesh.positions.get(vertex * 3 + 2);
+                x0 = Math.min(x0, x);
+                x1 = Math.max(x1, x);
+                y0 = Math.min(y0, y);
+                y1 = Math.max(y1, y);
+                z0 = Math.min(z0, z);
+                z1 = Math.max(z1, z);
+            }
+            bounds[t * 6] = x0;
+            bounds[t * 6 + 1] = z0;
+            bounds[t * 6 + 2] = x1;
+            bounds[t * 6 + 3] = z1;
+            bounds[t * 6 + 4] = y0;
+            bounds[t * 6 + 5] = y1;
+            lowX = Math.min(lowX, x0);
+            lowZ = Math.min(lowZ, z0);
+            highX = Math.max(highX, x1);
+            highZ = Math.max(highZ, z1);
+            extent += Math.max(x1 - x0, z1 - z0);
+        }
+
+        minX = triangleCount == 0 ? 0.0f : lowX;
+        minZ = triangleCount == 0 ? 0.0f : lowZ;
+
+        // Cells about the size of an average triangle keep a handful of
+        // triangles per cell, the count is capped around four per triangle.
+        final double width = Math.max(highX - lowX, 0.0), depth = Math.max(highZ - lowZ, 0.0);
+        final double limit = Math.sqrt(width * depth / Math.max(1, triangleCount * 4L));
+        final double size = Math.max(triangleCount == 0 ? 1.0 : extent / triangleCount, limit);
+        cellSize = (float) (size > 0.0 ? size : 1.0);
+        columns = Math.max(1, (int) Math.min(1 << 15, width / cellSize + 1));
+        rows = Math.max(1, (int) Math.min(1 << 15, depth / cellSize + 1));
+
+        offsets = new int[columns * rows + 1];
+        for (int t = 0; t < triangleCount; t++) {
+            final int c0 = column(bounds[t * 6]), c1 = column(bounds[t * 6 + 2]);
+            final int r0 = row(bounds[t * 6 + 1]), r1 = row(bounds[t * 6 + 3]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) offsets[r * columns + c + 1]++;
+            }
+        }
+        Arrays.parallelPrefix(offsets, Integer::sum);
+
+        triangles = new int[offsets[offsets.length - 1]];
+        heights = new float[columns * rows * 2];
+        for (int cell = 0; cell < columns * rows; cell++) {
+            heights[cell * 2] = Float.POSITIVE_INFINITY;
+            heights[cell * 2 + 1] = Float.NEGATIVE_INFINITY;
+        }
+        final int[] cursors = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int t = 0; t < triangleCount; t++) {
+            final int c0 = column(bounds[t * 6]), c1 = column(bounds[t * 6 + 2]);
+            final int r0 = row(bounds[t * 6 + 1]), r1 = row(bounds[t * 6 + 3]);
+            for (int r = r0; r <= r1; r++) {
+                for (int c = c0; c <= c1; c++) {
+                    final int cell = r * columns + c;
+                    triangles[cursors[cell]++] = t;
+                    heights[cell * 2] = Math.min(heights[cell * 2], bounds[t * 6 + 4]);
+                    heights[cell * 2 + 1] = Math.max(heights[cell * 2 + 1], bounds[t * 6 + 5]);
+                }
+            }
+        }
+    }
+
+    // Function
+
+    /**
+     * Retrieves the triangle under a point, when several triangles overlap
+     * on the XZ plane the one closest in height wins.
+     *
+     * @param x The x of the point.
+     * @param y The y of the point.
+     * @param z The z of the point.
+     * @return The triangle id, or -1 if no triangle lies under the point.
+     */
+    int locate(final float x, final float y, final float z) {
+        final int c = (int) Math.floor((x - minX) / cellSize), r = (int) Math.floor((z - minZ) / cellSize);
+        if (c < 0 || r < 0 || c >= columns || r >= rows) return -1;
+
+        int best = -1;
+        float bestHeight = Float.POSITIVE_INFINITY;
+        final int cell = r * columns + c;
+        for (int i = offsets[cell]; i < offsets[cell + 1]; i++) {
+            final int t = triangles[i];
+            final float height = height(mesh, t, x, z);
+            if (Float.isNaN(height)) continue;
+
+            if (Math.abs(height - y) < bestHeight) {
+                bestHeight = Math.abs(height - y);
+                best = t;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Retrieves the triangle closest to a point by searching rings of cells
+     * around it until no closer triangle can be found.
+     *
+     * @param x The x of the point.
+     * @param y The y of the point.
+     * @param z The z of the point.
+     * @return The triangle id, or -1 if the mesh is empty.
+     */
+    int nearest(final float x, final float y, final float z) {
+        if (triangles.length == 0) return -1;
+
+        final int c = Math.max(0, Math.min(columns - 1, (int) Math.floor((x - minX) / cellSize)));
+        final int r = Math.max(0, Math.min(rows - 1, (int) Math.floor((z - minZ) / cellSize)));
+
+        // How far the point lies outside the grid, with the ring distance it
+        // bounds from below the distance to any triangle not searched yet.
+        final float outsideX = Math.max(0.0f, Math.max(minX - x, x - (minX + columns * cellSize)));
+        final float outsideZ = Math.max(0.0f, Math.max(minZ - z, z - (minZ + rows * cellSize)));
+        final float outside = Math.max(outsideX, outsideZ);
+
+        final float[] closest = new float[3];
+        int best = -1;
+        float bestDistance = Float.POSITIVE_INFINITY;
+        for (int ring = 0; ring <= Math.max(columns, rows); ring++) {
+            if (best >= 0 && Math.hypot(outside, (ring - 1) * cellSize) >= Math.sqrt(bestDistance)) break;
+
+            for (int j = r - ring; j <= r + ring; j++) {
+                if (j < 0 || j >= rows) continue;
+                final boolean edge = j == r - ring || j == r + ring;
+                for (int i = c - ring; i <= c + ring; i += edge ? 1 : ring * 2) {
+                    if (i >= 0 && i < columns && distance(j * columns + i, x, y, z) < bestDistance) {
+                        final int cell = j * columns + i;
+                        for (int k = offsets[cell]; k < offsets[cell + 1]; k++) {
+                            closestPoint(mesh, triangles[k], x, y, z, closest);
+                            final float dx = closest[0] - x, dy = closest[1] - y, dz = closest[2] - z;
+                            final float distance = dx * dx + dy * dy + dz * dz;
+                            if (distance < bestDistance) {
+                                bestDistance = distance;
+                                best = triangles[k];
+                            }
+                        }
+                    }
+                    if (ring == 0) break;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Retrieves the height of a triangle under a point of the XZ plane.
+     *
+     * @return The height, or NaN if the point is outside the triangle.
+     */
+    static float height(final MeshGraph mesh, final int triangle, final float x, final float z) {
+        final int a = mesh.getTriangleVertex(triangle, 0) * 3;
+        final int b = mesh.getTriangleVertex(triangle, 1) * 3;
+        final int c = mesh.getTriangleVertex(triangle, 2) * 3;
+        final float ax = mesh.positions.get(a), az = mesh.positions.get(a + 2);
+        final float bx = mesh.positions.get(b), bz = mesh.positions.get(b + 2);
+        final float cx = mesh.positions.get(c), cz = mesh.positions.get(c + 2);
+
+        final float area = (bx - ax) * (cz - az) - (cx - ax) * (bz - az);
+        if (Math.abs(area) < EPSILON * EPSILON) return Float.NaN;
+
+        // Barycentric weights of b and c, signed by the winding.
+        final float u = ((x - ax) * (cz - az) - (cx - ax) * (z - az)) / area;
+        final float v = ((bx - ax) * (z - az) - (x - ax) * (bz - az)) / area;
+        if (u < -EPSILON || v < -EPSILON || u + v > 1.0f + EPSILON) return Float.NaN;
+
+        final float ay = mesh.positions.get(a + 1);
+        return ay + u * (mesh.positions.get(b + 1) - ay) + v * (mesh.positions.get(c + 1) - ay);
+    }
+
+    /**
+     * Writes the point of a triangle closest to a point, after Ericson's
+     * Real-Time Collision Detection 5.1.5.
+     */
+    static void closestPoint(final MeshGraph mesh, final int triangle,
+                             final float px, final float py, final float pz, final float[] out) {
+        final int a = mesh.getTriangleVertex(triangle, 0) * 3;
+        final int b = mesh.getTriangleVertex(triangle, 1) * 3;
+        final int c = mesh.getTriangleVertex(triangle, 2) * 3;
+        final float ax = mesh.positions.get(a), ay = mesh.positions.get(a + 1), az = mesh.positions.get(a + 2);
+        final float abx = mesh.positions.get(b) - ax, aby = mesh.positions.get(b + 1) - ay, abz = mesh.positions.get(b + 2) - az;
+        final float acx = mesh.positions.get(c) - ax, acy = mesh.positions.get(c + 1) - ay, acz = mesh.positions.get(c + 2) - az;
+        final float apx = px - ax, apy = py - ay, apz = pz - az;
+
+        final float d1 = abx * apx + aby * apy + abz * apz;
+        final float d2 = acx * apx + acy * apy + acz * apz;
+        if (d1 <= 0.0f && d2 <= 0.0f) {
+            set(out, ax, ay, az, 0.0f, 0.0f, abx, aby, abz, acx, acy, acz);
+            return;
+        }
+
+        final float bpx = apx - abx, bpy = apy - aby, bpz = apz - abz;
+        final float d3 = abx * bpx + aby * bpy + abz * bpz;
+        final float d4 = acx * bpx + acy * bpy + acz * bpz;
+        if (d3 >= 0.0f && d4 <= d3) {
+            set(out, ax, ay, az, 1.0f, 0.0f, abx, aby, abz, acx, acy, acz);
+            return;
+        }
+
+        final float vc = d1 * d4 - d3 * d2;
+        if (vc <= 0.0f && d1 >= 0.0f && d3 <= 0.0f) {
+            set(out, ax, ay, az, d1 / (d1 - d3), 0.0f, abx, aby, abz, acx, acy, acz);
+            return;
+        }
+
+        final float cpx = apx - acx, cpy = apy - acy, cpz = apz - acz;
+        final float d5 = abx * cpx + aby * cpy + abz * cpz;
+        final float d6 = acx * cpx + acy * cpy + acz * cpz;
+        if (d6 >= 0.0f && d5 <= d6) {
+            set(out, ax, ay, az, 0.0f, 1.0f, abx, aby, abz, acx, acy, acz);
+            return;
+        }
+
+        final float vb = d5 * d2 - d1 * d6;
+        if (vb <= 0.0f && d2 >= 0.0f && d6 <= 0.0f) {
+            set(out, ax, ay, az, 0.0f, d2 / (d2 - d6), abx, aby, abz, acx, acy, acz);
+            return;
+        }
+
+        final float va = d3 * d6 - d5 * d4;
+        if (va <= 0.0f && d4 - d3 >= 0.0f && d5 - d6 >= 0.0f) {
+            final float w = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+            set(out, ax, ay, az, 1.0f - w, w, abx, aby, abz, acx, acy, acz);
+            return;
+        }
+
+        final float denominator = 1.0f / (va + vb + vc);
+        set(out, ax, ay, az, vb * denominator, vc * denominator, abx, aby, abz, acx, acy, acz);
+    }
+
+    private static void set(final float[] out, final float ax, final float ay, final float az,
+                            final float u, final float v,
+                            final float abx, final float aby, final float abz,
+                            final float acx, final float acy, final float acz) {
+        out[0] = ax + u * abx + v * acx;
+        out[1] = ay + u * aby + v * acy;
+        out[2] = az + u * abz + v * acz;
+    }
+
+    /**
+     * Retrieves the squared distance from a point to the box of a cell, which
+     * spans the heights of the triangles listed in it.
+     */
+    private float distance(final int cell, final float x, final float y, final float z) {
+        final float cellX = minX + (cell % columns) * cellSize, cellZ = minZ + (cell / columns) * cellSize;
+        final float dx = Math.max(0.0f, Math.max(cellX - x, x - cellX - cellSize));
+        final float dy = Math.max(0.0f, Math.max(heights[cell * 2] - y, y - heights[cell * 2 + 1]));
+        final float dz = Math.max(0.0f, Math.max(cellZ - z, z - cellZ - cellSize));
+
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private int column(final float x) {
+        return Math.min(columns - 1, (int) ((x - minX) / cellSize));
+    }
+
+    private int row(final float z) {
+        return Math.min(rows - 1, (int) ((z - minZ) / cellSize));
+    }
+}
@@ -0,0 +1,355 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.IGraph;
+import org.faya.sensei.IHeuristic;
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.INode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * A* over the ids of an indexed graph. Costs, parents and the open set live in
+ * an {@link ISearchState} owned by the pathfinder, the nodes of the graph are
+ * only touched to report progress to observers and to return the path, so one
+ * graph can be shared by several pathfinders.
+ * <p>
+ * A graph without ids is searched through its nodes instead, on the costs and
+ * parents they hold.
+ */
+public class AStarPathfinder extends AbstractPathfinder {
+
+    protected final IIndexedGraph graph;
+    protected final IHeuristic heuristic;
+    protected final ISearchState state;
+    protected final OpenSet openSet;
+
+    private final Heuristic positionHeuristic;
+    private final int[] neighbors;
+    private final double[] costs;
+    private final double[] position;
+    private final double[] goalPosition;
+
+    private int goal = -1;
+
+    private int expandedCount;
+    private int pushCount;
+    private int decreaseCount;
+
+    /**
+     * @param graph     The graph to search, a graph that is not an
+     *                  {@link IIndexedGraph} is searched through its nodes.
+     * @param heuristic The heuristic.
+     */
+    public AStarPathfinder(final IGraph graph, final IHeuristic heuristic) {
+        this(graph instanceof IIndexedGraph indexed ? indexed : new UnindexedGraph(graph), heuristic);
+    }
+
+    public AStarPathfinder(final IIndexedGraph graph, final IHeuristic heuristic) {
+        this(graph, heuristic, new HeapSearchState(graph.getNodeCount()));
+    }
+
+    public AStarPathfinder(final IIndexedGraph graph, final IHeuristic heuristic, final ISearchState state) {
+        if (state.getCapacity() < graph.getNodeCount())
+            throw new IllegalArgumentException("Search state is smaller than the graph.");
+
+        this.graph = graph;
+        this.heuristic = heuristic;
+        this.state = state;
+        this.openSet = new OpenSet(state);
+        this.positionHeuristic = heuristic instanceof Heuristic value ? value : null;
+        this.neighbors = new int[graph.getMaxDegree()];
+        this.costs = new double[graph.getMaxDegree()];
+        this.position = new double[graph.getDimensions()];
+        this.goalPosition = new double[graph.getDimensions()];
+    }
+
+    // Getter and setter
+
+    /**
+     * Retrieves the number of nodes expanded by the last search.
+     *
+     * @return The number of nodes.
+     */
+    public int getExpandedCount() {
+        return expandedCount;
+    }
+
+    /**
+     * Retrieves the number of nodes pushed on the open set by the last search.
+     *
+     * @return The number of nodes.
+     */
+    public int getPushCount() {
+        return pushCount;
+    }
+
+    /**
+     * Retrieves the number of decrease-key operations of the last search.
+     *
+     * @return The number of operations.
+     */
+    public int getDecreaseCount() {
+        return decreaseCount;
+    }
+
+    // Function
+
+    @Override
+    public List<INode> findPath(final INode start, final INode goal) {
+        if (graph instanceof UnindexedGraph unindexed) return findNodePath(unindexed.graph(), start, goal);
+
+        final SearchEvent event = new SearchEvent();
+        event.begin();
+        final long began = metrics != null ? System.nanoTime() : 0;
+        final int startId = graph.getId(start);
+        final int goalId = graph.getId(goal);
+        // A node from another graph skips the search, the counters must not
+        // report the previous one.
+        resetCounters();
+
+        final List<INode> path = new ArrayList<>();
+        if (startId >= 0 && goalId >= 0 && search(startId, goalId)) {
+            for (int id = goalId; id >= 0; id = state.getParent(id)) {
+                path.add(graph.getNode(id));
+            }
+            Collections.reverse(path);
+        }
+
+        if (metrics != null) record(began, path.size());
+        event.end(this, startId, goalId, path.size());
+        onFinish(path);
+
+        return path;
+    }
+
+    /**
+     * Finds a path between two node ids and writes it into a buffer, nothing
+     * is allocated once the pathfinder has warmed up.
+     *
+     * @param start The start node id.
+     * @param goal  The goal node id.
+     * @param path  The buffer receiving the node ids from start to goal, only
+     *              the first {@code path.length} nodes are written if the
+     *              buffer is too small.
+     * @return The number of nodes in the path, or 0 if there is no path.
+     */
+    public int findPath(final int start, final int goal, final int[] path) {
+        final SearchEvent event = new SearchEvent();
+        event.begin();
+        final long began = metrics != null ? System.nanoTime() : 0;
+        int length = 0;
+        if (search(start, goal)) {
+            for (int id = goal; id >= 0; id = state.getParent(id)) length++;
+
+            int index = length;
+            for (int id = goal; id >= 0; id = state.getParent(id)) {
+                if (--index < path.length) path[index] = id;
+            }
+        }
+
+        if (metrics != null) record(began, length);
+        event.end(this, start, goal, length);
+        if (isObserved()) {
+            final List<INode> nodes = new ArrayList<>(length);
+            for (int i = 0; i < Math.min(length, path.length); i++) {
+                nodes.add(graph.getNode(path[i]));
+            }
+            onFinish(nodes);
+        }
+
+        return length;
+    }
+
+    /**
+     * Runs the search, the parents in the search state lead from the goal back
+     * to the start when it succeeds.
+     *
+     * @param start The start node id.
+     * @param goal  The goal node id.
+     * @return {@code true} if the goal was reached.
+     */
+    protected boolean search(final int start, final int goal) {
+        clear();
+
+        this.goal = goal;
+        graph.getPosition(goal, goalPosition);
+
+        update(start, -1, 0);
+
+        final boolean observed = isObserved();
+        boolean found = false;
+        while (!openSet.isEmpty()) {
+            final int current = openSet.poll();
+            settle(current);
+            if (observed) onNode(graph, current);
+            expandedCount++;
+
+            if (current == goal) {
+                found = true;
+                break;
+            }
+
+            expand(current);
+        }
+
+        if (observed) flushNodes(graph);
+
+        return found;
+    }
+
+    /**
+     * Called when a node leaves the open set, before it is reported and
+     * expanded. Does nothing by default.
+     *
+     * @param current The id of the node.
+     */
+    protected void settle(final int current) { }
+
+    /**
+     * Relaxes the edges of a node that was just closed.
+     *
+     * @param current The id of the node.
+     */
+    protected void expand(final int current) {
+        final double gCost = state.getGCost(current);
+        final int count = graph.getNeighbors(current, neighbors, costs);
+
+        for (int i = 0; i < count; i++) {
+            if (state.getHeapIndex(neighbors[i]) == ISearchState.CLOSED) continue;
+            update(neighbors[i], current, gCost + costs[i]);
+        }
+    }
+
+    /**
+     * Opens a node or lowers its G cost if the new route is cheaper.
+     *
+     * @param id     The id of the node.
+     * @param parent The id of the parent on the new route.
+     * @param gCost  The G cost of the new route.
+     */
+    protected void update(final int id, final int parent, final double gCost) {
+        final int heapIndex = state.getHeapIndex(id);
+        if (heapIndex == ISearchState.CLOSED) return;
+        if (heapIndex != ISearchState.UNVISITED && gCost >= state.getGCost(id)) return;
+
+        final double hCost = heuristic(id);
+        state.setGCost(id, gCost);
+        state.setParent(id, parent);
+
+        if (heapIndex == ISearchState.UNVISITED) {
+            openSet.push(id, gCost + hCost, hCost);
+            pushCount++;
+        } else {
+            openSet.decrease(id, gCost + hCost, hCost);
+            decreaseCount++;
+        }
+    }
+
+    /**
+     * Calculates the heuristic cost from a node to the current goal.
+     *
+     * @param id The id of the node.
+     * @return The heuristic cost.
+     */
+    protected double heuristic(final int id) {
+        if (positionHeuristic != null) {
+            graph.getPosition(id, position);
+            return positionHeuristic.calculate(position, goalPosition, position.length);
+        }
+
+        return heuristic.calculate(graph.getNode(id), graph.getNode(goal));
+    }
+
+    /**
+     * Searches a graph without ids on the costs and parents of its nodes. The
+     * open set is ordered by F cost alone and edge costs are the distances
+     * between node positions. The goal is not reported as a processed node.
+     */
+    private List<INode> findNodePath(final IGraph nodes, final INode start, final INode goal) {
+        final SearchEvent event = new SearchEvent();
+        event.begin();
+        final long began = metrics != null ? System.nanoTime() : 0;
+        resetCounters();
+
+        final PriorityQueue<INode> open = new PriorityQueue<>(Comparator.comparingDouble(INode::getFCost));
+        final Set<INode> closed = new HashSet<>();
+        final List<INode> path = new ArrayList<>();
+        if (start != null && goal != null) {
+            start.setGCost(0);
+            start.setHCost(heuristic.calculate(start, goal));
+            start.setParent(null);
+            open.add(start);
+            pushCount++;
+        }
+
+        while (!open.isEmpty()) {
+            final INode current = open.poll();
+            expandedCount++;
+            if (current.equals(goal)) {
+                for (INode node = current; node != null; node = node.getParent()) path.add(node);
+                Collections.reverse(path);
+                break;
+            }
+
+            closed.add(current);
+            onNode(current);
+
+            for (final INode neighbor : nodes.getNeighbors(current)) {
+                if (closed.contains(neighbor)) continue;
+
+                final double gCost = current.getGCost() + distance(current.getPosition(), neighbor.getPosition());
+                final boolean opened = open.contains(neighbor);
+                if (opened && gCost >= neighbor.getGCost()) continue;
+
+                neighbor.setGCost(gCost);
+                neighbor.setHCost(heuristic.calculate(neighbor, goal));
+                neighbor.setParent(current);
+                if (opened) {
+                    open.remove(neighbor);
+                    decreaseCount++;
+                } else {
+                    pushCount++;
+                }
+                open.add(neighbor);
+            }
+        }
+
+        if (metrics != null) record(began, path.size());
+        event.end(this, -1, -1, path.size());
+        onFinish(path);
+
+        return path;
+    }
+
+    private static double distance(final double[] from, final double[] to) {
+        double sum = 0.0;
+        for (int axis = 0; axis < Math.min(from.length, to.length); axis++) {
+            final double delta = to[axis] - from[axis];
+            sum += delta * delta;
+        }
+
+        return Math.sqrt(sum);
+    }
+
+    private void record(final long began, final int length) {
+        metrics.record(System.nanoTime() - began, expandedCount, pushCount, decreaseCount, length);
+    }
+
+    private void clear() {
+        state.clear();
+        openSet.clear();
+        resetCounters();
+    }
+
+    private void resetCounters() {
+        expandedCount = 0;
+        pushCount = 0;
+        decreaseCount = 0;
+    }
+}
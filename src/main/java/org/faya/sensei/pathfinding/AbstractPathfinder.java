@@ -0,0 +1,94 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.INode;
+import org.faya.sensei.IPathfinder;
+import org.faya.sensei.IPathfinderObserver;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public abstract class AbstractPathfinder implements IPathfinder {
+
+    protected static final int BATCH = 256;
+
+    protected final List<IPathfinderObserver> observers = new CopyOnWriteArrayList<>();
+
+    private final int[] batch = new int[BATCH];
+    private int batchCount;
+
+    protected PathfinderMetrics metrics;
+
+    // Getter and setter
+
+    public PathfinderMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Attaches metrics recording every search of this pathfinder, the clock is
+     * only read while metrics are attached.
+     *
+     * @param metrics The metrics, or null to stop recording.
+     */
+    public void setMetrics(final PathfinderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Function
+
+    @Override
+    public void registerObserver(final IPathfinderObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Checks whether any observer is registered, a search reads it once before
+     * its loop so an unobserved search pays nothing per node.
+     *
+     * @return {@code true} if there is an observer.
+     */
+    protected boolean isObserved() {
+        return !observers.isEmpty();
+    }
+
+    @Override
+    public void onNode(final INode node) {
+        for (final IPathfinderObserver observer : observers) {
+            observer.onNode(node);
+        }
+    }
+
+    /**
+     * Queues a processed node for the observers, they receive the queued ids
+     * in bulk once the batch is full or on {@link #flushNodes(IIndexedGraph)}.
+     *
+     * @param graph The graph searched.
+     * @param id    The id of the node.
+     */
+    protected void onNode(final IIndexedGraph graph, final int id) {
+        batch[batchCount++] = id;
+        if (batchCount == BATCH) flushNodes(graph);
+    }
+
+    /**
+     * Delivers the queued nodes to the observers.
+     *
+     * @param graph The graph searched.
+     */
+    protected void flushNodes(final IIndexedGraph graph) {
+        if (batchCount == 0) return;
+
+        for (final IPathfinderObserver observer : observers) {
+            observer.onNodes(graph, batch, batchCount);
+        }
+        batchCount = 0;
+    }
+
+    @Override
+    public void onFinish(final List<INode> path) {
+        for (final IPathfinderObserver observer : observers) {
+            observer.onFinish(path);
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.INode;
+import org.faya.sensei.IPathfinderObserver;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Observer adapter moving the work of a slow observer, such as the
+ * visualization, off the search thread. The search pushes node ids into a
+ * preallocated ring buffer and a daemon thread delivers them to the wrapped
+ * observer in batches. The ring has a single producer, an adapter is
+ * registered to one pathfinder searching on one thread at a time.
+ * <p>
+ * Once the adapter is closed, or the wrapped observer has thrown, nodes and
+ * paths are dropped instead of waited for, so the search never hangs on a
+ * thread that is gone.
+ */
+public final class AsyncPathfinderObserver implements IPathfinderObserver, AutoCloseable {
+
+    /**
+     * What the search does with a node when the ring is full.
+     */
+    public enum Backpressure {
+        /**
+         * Drop the node.
+         */
+        DROP,
+        /**
+         * Keep one node out of {@link #SAMPLE_STEP} once the ring is half
+         * full, drop the node when it is full.
+         */
+        SAMPLE,
+        /**
+         * Wait for the observer thread to make room.
+         */
+        BLOCK
+    }
+
+    public static final int SAMPLE_STEP = 8;
+
+    private static final int BATCH = 256;
+    private static final int FINISH = -1;
+    private static final long PARK_NANOS = 100_000;
+
+    private final IIndexedGraph graph;
+    private final IPathfinderObserver observer;
+    private final Backpressure backpressure;
+
+    private final int[] ring;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final Queue<List<INode>> paths = new ConcurrentLinkedQueue<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile RuntimeException failure;
+
+    /**
+     * Producer side state, only touched by the search thread.
+     */
+    private long cachedTail;
+    private int sample;
+
+    /**
+     * Creates the adapter and starts its thread.
+     *
+     * @param graph        The graph searched, node handles are turned into ids
+     *                     and back through it.
+     * @param observer     The observer to deliver to.
+     * @param capacity     The minimum number of nodes the ring holds, rounded
+     *                     up to a power of two.
+     * @param backpressure What to do when the ring is full.
+     */
+    public AsyncPathfinderObserver(final IIndexedGraph graph, final IPathfinderObserver observer,
+                                   final int capacity, final Backpressure backpressure) {
+        if (capacity <= 0 || capacity > 1 << 30) throw new IllegalArgumentException("Capacity must be in (0, 2^30].");
+
+        this.graph = graph;
+        this.observer = observer;
+        this.backpressure = backpressure;
+        this.ring = new int[capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1];
+        this.mask = ring.length - 1;
+
+        this.thread = new Thread(this::run, "pathfinder-observer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // Getter and setter
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Retrieves the number of nodes not delivered because the ring was full
+     * or being sampled.
+     *
+     * @return The number of nodes dropped so far.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Retrieves the exception the wrapped observer threw, which stopped the
+     * delivery.
+     *
+     * @return The exception, or null if the observer never threw.
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    // Function
+
+    @Override
+    public void onNode(final INode node) {
+        final int id = graph.getId(node);
+        if (id >= 0) push(id);
+    }
+
+    /**
+     * Pushes a node id, the entry point for searches that have the id at hand.
+     *
+     * @param id The id of the node.
+     */
+    public void onNode(final int id) {
+        push(id);
+    }
+
+    @Override
+    public void onNodes(final IIndexedGraph graph, final int[] ids, final int count) {
+        for (int i = 0; i < count; i++) {
+            push(ids[i]);
+        }
+    }
+
+    /**
+     * Queues the path behind every node pushed before it, a finish waits for
+     * room whatever the backpressure and is only dropped once the delivery has
+     * stopped.
+     */
+    @Override
+    public void onFinish(final List<INode> path) {
+        final long position = head.get();
+        while (position - tail.get() >= ring.length) {
+            if (!running) return;
+            await();
+        }
+        if (!running) return;
+
+        paths.add(path);
+        ring[(int) position & mask] = FINISH;
+        head.lazySet(position + 1);
+    }
+
+    /**
+     * Delivers everything pushed so far, then stops the thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+
+        try {
+            thread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void push(final int id) {
+        if (!running) {
+            drop();
+            return;
+        }
+
+        final long position = head.get();
+        long used = position - cachedTail;
+
+        // The tail is only read again when the cached one says the ring is
+        // getting full, most pushes touch no shared state but the head.
+        if (used >= ring.length >> 1) {
+            cachedTail = tail.get();
+            used = position - cachedTail;
+        }
+
+        if (backpressure == Backpressure.SAMPLE && used >= ring.length >> 1 && ++sample % SAMPLE_STEP != 0) {
+            drop();
+            return;
+        }
+
+        if (used >= ring.length) {
+            if (backpressure != Backpressure.BLOCK) {
+                drop();
+                return;
+            }
+
+            while (position - (cachedTail = tail.get()) >= ring.length) {
+                if (!running) {
+                    drop();
+                    return;
+                }
+                await();
+            }
+        }
+
+        ring[(int) position & mask] = id;
+        head.lazySet(position + 1);
+    }
+
+    /**
+     * Only the search thread writes the count, so no atomic update is needed.
+     */
+    private void drop() {
+        dropped.lazySet(dropped.get() + 1);
+    }
+
+    private void await() {
+        LockSupport.unpark(thread);
+        Thread.yield();
+    }
+
+    private void run() {
+        try {
+            drain();
+        } catch (final RuntimeException e) {
+            failure = e;
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Delivers the ring until it is empty after a close, the nodes of a slice
+     * go out in one bulk call per run between finishes.
+     */
+    private void drain() {
+        final int[] batch = new int[BATCH];
+        while (true) {
+            final boolean stopping = !running;
+            final long position = tail.get();
+            final long available = head.get() - position;
+
+            if (available == 0) {
+                if (stopping) return;
+                LockSupport.parkNanos(this, PARK_NANOS);
+                continue;
+            }
+
+            final long end = position + Math.min(available, BATCH);
+            int count = 0;
+            for (long i = position; i < end; i++) {
+                final int id = ring[(int) i & mask];
+                if (id != FINISH) {
+                    batch[count++] = id;
+                    continue;
+                }
+
+                if (count > 0) observer.onNodes(graph, batch, count);
+                count = 0;
+                observer.onFinish(paths.poll());
+            }
+            if (count > 0) observer.onNodes(graph, batch, count);
+            tail.lazySet(end);
+        }
+    }
+}
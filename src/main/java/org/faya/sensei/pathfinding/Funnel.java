@@ -0,0 +1,245 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.graph.MeshGraph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Simple Stupid Funnel after Mikko Mononen, pulls the string through the
+ * portals of a triangle corridor. The portals are the edges the corridor
+ * crosses, read from the triangle adjacency of the mesh into a buffer owned
+ * by the funnel, so nothing is allocated once the buffer fits the longest
+ * corridor. The funnel runs on the XZ plane with Y up, the Y of the portal
+ * corners is kept in the output. An instance is not thread safe.
+ */
+public final class Funnel {
+
+    private static final float EPSILON = 1e-6f;
+    private static final float SEGMENT_EPSILON = 1e-3f;
+
+    /**
+     * Funnel and buffers of each thread running a batch, reused across
+     * batches so a warm thread allocates only the returned paths.
+     */
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final double[] position = new double[3];
+
+    /**
+     * Six floats per portal: x, y, z of the left corner then of the right.
+     */
+    private float[] portals = new float[6 * 64];
+
+    // Function
+
+    /**
+     * Smooths a corridor into the shortest path through its portals.
+     *
+     * @param mesh     The mesh graph.
+     * @param corridor The triangle ids from the start to the goal triangle.
+     * @param length   The number of triangles in the corridor.
+     * @param start    The start position, inside the first triangle.
+     * @param goal     The goal position, inside the last triangle.
+     * @param path     The buffer receiving x, y, z per point from start to
+     *                 goal, only the points that fit are written.
+     * @return The number of points of the path, 0 if the corridor is empty or
+     *         broken.
+     */
+    public int funnel(final MeshGraph mesh, final int[] corridor, final int length,
+                      final double[] start, final double[] goal, final float[] path) {
+        final FunnelEvent event = new FunnelEvent();
+        event.begin();
+
+        return event.end(mesh, length, smooth(mesh, corridor, length, start, goal, path));
+    }
+
+    private int smooth(final MeshGraph mesh, final int[] corridor, final int length,
+                       final double[] start, final double[] goal, final float[] path) {
+        if (length <= 0) return 0;
+
+        // The start and the goal are degenerate portals at both ends.
+        final int portalCount = length + 1;
+        if (portals.length < portalCount * 6) portals = Arrays.copyOf(portals, Math.max(portalCount, portals.length / 3) * 6);
+
+        setPortal(0, start, start);
+        for (int i = 0; i < length - 1; i++) {
+            if (!setPortal(mesh, i + 1, corridor[i], corridor[i + 1])) return 0;
+        }
+        setPortal(length, goal, goal);
+
+        int count = emit(path, 0, (float) start[0], (float) start[1], (float) start[2]);
+
+        float apexX = portals[0], apexY = portals[1], apexZ = portals[2];
+        float leftX = apexX, leftY = apexY, leftZ = apexZ;
+        float rightX = apexX, rightY = apexY, rightZ = apexZ;
+        int leftIndex = 0, rightIndex = 0;
+        for (int i = 1; i < portalCount; i++) {
+            final int l = i * 6, r = i * 6 + 3;
+
+            // A portal passing through the apex does not narrow the funnel,
+            // such as the first one when the start sits on a triangle edge.
+            if (i < portalCount - 1 && onSegment(apexX, apexZ, portals[l], portals[l + 2], portals[r], portals[r + 2])) {
+                continue;
+            }
+
+            // Tighten the right side, or restart from the left corner when
+            // the new right crosses over it.
+            if (area(apexX, apexZ, rightX, rightZ, portals[r], portals[r + 2]) <= 0.0f) {
+                if (equal(apexX, apexZ, rightX, rightZ)
+                        || area(apexX, apexZ, leftX, leftZ, portals[r], portals[r + 2]) > 0.0f) {
+                    rightX = portals[r];
+                    rightY = portals[r + 1];
+                    rightZ = portals[r + 2];
+                    rightIndex = i;
+                } else {
+                    count = emit(path, count, leftX, leftY, leftZ);
+                    apexX = rightX = leftX;
+                    apexY = rightY = leftY;
+                    apexZ = rightZ = leftZ;
+                    rightIndex = leftIndex;
+                    i = leftIndex;
+                    continue;
+                }
+            }
+
+            // Same for the left side.
+            if (area(apexX, apexZ, leftX, leftZ, portals[l], portals[l + 2]) >= 0.0f) {
+                if (equal(apexX, apexZ, leftX, leftZ)
+                        || area(apexX, apexZ, rightX, rightZ, portals[l], portals[l + 2]) < 0.0f) {
+                    leftX = portals[l];
+                    leftY = portals[l + 1];
+                    leftZ = portals[l + 2];
+                    leftIndex = i;
+                } else {
+                    count = emit(path, count, rightX, rightY, rightZ);
+                    apexX = leftX = rightX;
+                    apexY = leftY = rightY;
+                    apexZ = leftZ = rightZ;
+                    leftIndex = rightIndex;
+                    i = rightIndex;
+                }
+            }
+        }
+
+        // The last point emitted is the apex, the goal is only added when
+        // the string did not already end on it.
+        if (equal(apexX, apexZ, (float) goal[0], (float) goal[2]) && apexY == (float) goal[1]) return count;
+
+        return emit(path, count, (float) goal[0], (float) goal[1], (float) goal[2]);
+    }
+
+    /**
+     * Smooths many corridors of the same mesh on a fork/join pool, each
+     * worker thread runs its own funnel and output buffer.
+     *
+     * @param mesh      The mesh graph.
+     * @param corridors The triangle ids of each corridor.
+     * @param lengths   The number of triangles in each corridor.
+     * @param starts    The start positions, x, y, z per corridor.
+     * @param goals     The goal positions, x, y, z per corridor.
+     * @param pool      The pool to use.
+     * @return The path of each corridor as x, y, z per point, empty if the
+     *         corridor is empty or broken.
+     */
+    public static float[][] funnel(final MeshGraph mesh, final int[][] corridors, final int[] lengths,
+                                   final double[] starts, final double[] goals, final ForkJoinPool pool) {
+        final float[][] paths = new float[corridors.length][];
+
+        pool.submit(() -> IntStream.range(0, corridors.length).parallel().forEach(i -> {
+            final Scratch scratch = SCRATCH.get();
+            System.arraycopy(starts, i * 3, scratch.start, 0, 3);
+            System.arraycopy(goals, i * 3, scratch.goal, 0, 3);
+
+            // A path has at most one point per portal, plus the goal.
+            if (scratch.path.length < (lengths[i] + 2) * 3) scratch.path = new float[(lengths[i] + 2) * 3];
+
+            final int count = scratch.funnel.funnel(mesh, corridors[i], lengths[i], scratch.start, scratch.goal, scratch.path);
+            paths[i] = Arrays.copyOf(scratch.path, count * 3);
+        })).join();
+
+        return paths;
+    }
+
+    /**
+     * Reads the portal between two triangles, the corners are ordered so the
+     * left one is on the positive side of the right one seen from the first
+     * triangle.
+     */
+    private boolean setPortal(final MeshGraph mesh, final int index, final int from, final int to) {
+        final int edge = mesh.getPortalEdge(from, to);
+        if (edge < 0) return false;
+
+        final int a = mesh.getTriangleVertex(from, edge);
+        final int b = mesh.getTriangleVertex(from, (edge + 1) % 3);
+        final int c = mesh.getTriangleVertex(from, (edge + 2) % 3);
+
+        mesh.getPosition(c, position);
+        final float cx = (float) position[0], cz = (float) position[2];
+        mesh.getPosition(a, position);
+        final float ax = (float) position[0], ay = (float) position[1], az = (float) position[2];
+        mesh.getPosition(b, position);
+        final float bx = (float) position[0], by = (float) position[1], bz = (float) position[2];
+
+        // The opposite corner lies behind the portal, on the same side as
+        // any apex the funnel can have.
+        final boolean aLeft = area(cx, cz, ax, az, bx, bz) > 0.0f;
+        final int offset = index * 6;
+        set(offset, aLeft ? ax : bx, aLeft ? ay : by, aLeft ? az : bz);
+        set(offset + 3, aLeft ? bx : ax, aLeft ? by : ay, aLeft ? bz : az);
+
+        return true;
+    }
+
+    private void setPortal(final int index, final double[] left, final double[] right) {
+        set(index * 6, (float) left[0], (float) left[1], (float) left[2]);
+        set(index * 6 + 3, (float) right[0], (float) right[1], (float) right[2]);
+    }
+
+    private void set(final int offset, final float x, final float y, final float z) {
+        portals[offset] = x;
+        portals[offset + 1] = y;
+        portals[offset + 2] = z;
+    }
+
+    private static int emit(final float[] path, final int count, final float x, final float y, final float z) {
+        if (count * 3 + 2 < path.length) {
+            path[count * 3] = x;
+            path[count * 3 + 1] = y;
+            path[count * 3 + 2] = z;
+        }
+
+        return count + 1;
+    }
+
+    /**
+     * Twice the signed area of a triangle on the XZ plane.
+     */
+    private static float area(final float ax, final float az, final float bx, final float bz,
+                              final float cx, final float cz) {
+        return (cx - ax) * (bz - az) - (bx - ax) * (cz - az);
+    }
+
+    private static boolean onSegment(final float px, final float pz, final float ax, final float az,
+                                     final float bx, final float bz) {
+        final float dx = bx - ax, dz = bz - az;
+        final float length = dx * dx + dz * dz;
+        final float t = length > 0.0f ? Math.max(0.0f, Math.min(1.0f, ((px - ax) * dx + (pz - az) * dz) / length)) : 0.0f;
+        final float ex = ax + t * dx - px, ez = az + t * dz - pz;
+
+        return ex * ex + ez * ez < SEGMENT_EPSILON * SEGMENT_EPSILON;
+    }
+
+    private static boolean equal(final float ax, final float az, final float bx, final float bz) {
+        return (ax - bx) * (ax - bx) + (az - bz) * (az - bz) < EPSILON * EPSILON;
+    }
+
+    private static final class Scratch {
+
+        private final Funnel funnel = new Funnel();
+        private final double[] start = new double[3];
+        private final double[] goal = new double[3];
+        private float[] path = new float[3 * 64];
+    }
+}
@@ -0,0 +1,55 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.graph.MeshGraph;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event around the smoothing of one corridor by a
+ * {@link Funnel}. Disabled unless a recording turns it on, a disabled event
+ * costs a branch and its allocation is removed by the JIT.
+ */
+@Name("org.faya.sensei.Funnel")
+@Label("Funnel")
+@Description("Pulls a path through the portals of a triangle corridor.")
+@Category({"Sensei", "Pathfinding"})
+@Enabled(false)
+@StackTrace(false)
+final class FunnelEvent extends Event {
+
+    @Label("Graph Id")
+    @Description("Identity hash of the mesh graph, the same as in graph build events.")
+    int graph;
+
+    @Label("Corridor Length")
+    int corridor;
+
+    @Label("Path Points")
+    int points;
+
+    // Function
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     *
+     * @param mesh     The mesh graph.
+     * @param corridor The number of triangles in the corridor.
+     * @param points   The number of points of the path.
+     * @return The number of points, passed through.
+     */
+    int end(final MeshGraph mesh, final int corridor, final int points) {
+        if (!shouldCommit()) return points;
+
+        this.graph = System.identityHashCode(mesh);
+        this.corridor = corridor;
+        this.points = points;
+        commit();
+        return points;
+    }
+}
@@ -0,0 +1,90 @@
+package org.faya.sensei.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Search state in arrays on the Java heap. Every node carries the generation
+ * it was last written in, values from an older generation read as unvisited,
+ * so {@link #clear()} only bumps the generation.
+ */
+public class HeapSearchState implements ISearchState {
+
+    private final double[] gCosts;
+    private final int[] parents;
+    private final int[] heapIndices;
+    private final int[] generations;
+
+    /**
+     * Starts above the zero the generations are allocated with, so a new
+     * state is clear.
+     */
+    private int generation = 1;
+
+    public HeapSearchState(final int capacity) {
+        gCosts = new double[capacity];
+        parents = new int[capacity];
+        heapIndices = new int[capacity];
+        generations = new int[capacity];
+    }
+
+    @Override
+    public int getCapacity() {
+        return gCosts.length;
+    }
+
+    @Override
+    public double getGCost(final int id) {
+        return generations[id] == generation ? gCosts[id] : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public void setGCost(final int id, final double gCost) {
+        stamp(id);
+        gCosts[id] = gCost;
+    }
+
+    @Override
+    public int getParent(final int id) {
+        return generations[id] == generation ? parents[id] : -1;
+    }
+
+    @Override
+    public void setParent(final int id, final int parent) {
+        stamp(id);
+        parents[id] = parent;
+    }
+
+    @Override
+    public int getHeapIndex(final int id) {
+        return generations[id] == generation ? heapIndices[id] : UNVISITED;
+    }
+
+    @Override
+    public void setHeapIndex(final int id, final int heapIndex) {
+        stamp(id);
+        heapIndices[id] = heapIndex;
+    }
+
+    @Override
+    public void clear() {
+        // After 2^32 searches the stamps wrap around, an old one could match
+        // again, so they are wiped once.
+        if (++generation == 0) {
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Moves a node into the current generation, the fields not being written
+     * start from the unvisited values.
+     */
+    private void stamp(final int id) {
+        if (generations[id] == generation) return;
+
+        generations[id] = generation;
+        gCosts[id] = Double.POSITIVE_INFINITY;
+        parents[id] = -1;
+        heapIndices[id] = UNVISITED;
+    }
+}
@@ -0,0 +1,70 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.IHeuristic;
+import org.faya.sensei.INode;
+
+/**
+ * Heuristics working directly on positions, pathfinders over indexed graphs
+ * call {@link #calculate(double[], double[], int)} and skip node handles.
+ */
+public enum Heuristic implements IHeuristic {
+
+    MANHATTAN {
+        @Override
+        public double calculate(final double[] start, final double[] goal, final int dimensions) {
+            double distance = 0;
+            for (int i = 0; i < dimensions; i++) {
+                distance += Math.abs(start[i] - goal[i]);
+            }
+            return distance;
+        }
+    },
+
+    EUCLIDEAN {
+        @Override
+        public double calculate(final double[] start, final double[] goal, final int dimensions) {
+            double distance = 0;
+            for (int i = 0; i < dimensions; i++) {
+                final double delta = start[i] - goal[i];
+                distance += delta * delta;
+            }
+            return Math.sqrt(distance);
+        }
+    },
+
+    /**
+     * Exact distance on an eight-connected plane where a diagonal step costs
+     * {@code sqrt(2)}, the first two components move together and the others
+     * add their Manhattan distance.
+     */
+    OCTILE {
+        @Override
+        public double calculate(final double[] start, final double[] goal, final int dimensions) {
+            final double dx = Math.abs(start[0] - goal[0]);
+            final double dy = dimensions > 1 ? Math.abs(start[1] - goal[1]) : 0.0;
+            double distance = Math.max(dx, dy) + (SQRT_2 - 1.0) * Math.min(dx, dy);
+            for (int i = 2; i < dimensions; i++) {
+                distance += Math.abs(start[i] - goal[i]);
+            }
+            return distance;
+        }
+    };
+
+    private static final double SQRT_2 = Math.sqrt(2.0);
+
+    /**
+     * Calculates the heuristic cost between two positions.
+     *
+     * @param start      The start position.
+     * @param goal       The goal position.
+     * @param dimensions The number of components to use.
+     * @return The calculated heuristic cost.
+     */
+    public abstract double calculate(final double[] start, final double[] goal, final int dimensions);
+
+    @Override
+    public double calculate(final INode start, final INode goal) {
+        final double[] startPosition = start.getPosition();
+        return calculate(startPosition, goal.getPosition(), startPosition.length);
+    }
+}
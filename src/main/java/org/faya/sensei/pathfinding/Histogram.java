@@ -0,0 +1,132 @@
+package org.faya.sensei.pathfinding;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative longs in log-linear buckets, in the
+ * manner of HdrHistogram. Every power of two is split into
+ * {@value #SUB_BUCKETS} buckets, so a reported value is within about 3% of
+ * the recorded one over the whole range of a long. Recording is an atomic
+ * increment of its bucket plus a striped sum, threads never wait on each
+ * other.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * The values of a histogram at one point in time.
+     *
+     * @param count The number of recorded values.
+     * @param mean  The mean of the recorded values.
+     * @param p50   The median.
+     * @param p99   The 99th percentile.
+     * @param p999  The 99.9th percentile.
+     * @param max   The largest recorded value.
+     */
+    public record Snapshot(long count, double mean, long p50, long p99, long p999, long max) { }
+
+    // Function
+
+    /**
+     * Records a value, negative values count as zero.
+     *
+     * @param value The value.
+     */
+    public void record(final long value) {
+        final long clamped = Math.max(0, value);
+
+        counts.incrementAndGet(index(clamped));
+        sum.add(clamped);
+        if (clamped > max.get()) max.accumulateAndGet(clamped, Math::max);
+    }
+
+    /**
+     * Retrieves the value below which a share of the recorded values fall.
+     *
+     * @param percentile The share, from 0 to 100.
+     * @return The highest value of the bucket reaching the share, at most the
+     *         largest recorded value, or 0 if the histogram is empty.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long[] copy = new long[BUCKETS];
+        final long count = copy(copy);
+
+        return valueAt(copy, count, percentile, max.get());
+    }
+
+    /**
+     * Reads the histogram. Values recorded during the call may be partly
+     * included.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        final long[] copy = new long[BUCKETS];
+        final long count = copy(copy);
+        final long largest = max.get();
+
+        return new Snapshot(count, count == 0 ? 0.0 : (double) sum.sum() / count,
+                valueAt(copy, count, 50.0, largest), valueAt(copy, count, 99.0, largest),
+                valueAt(copy, count, 99.9, largest), largest);
+    }
+
+    /**
+     * Clears the histogram, values recorded during the call may survive it.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    private long copy(final long[] copy) {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+
+        return count;
+    }
+
+    /**
+     * Values below {@code 2 * SUB_BUCKETS} have a bucket each, above that the
+     * bucket keeps the top {@code SUB_BUCKET_BITS + 1} bits of the value.
+     */
+    private static int index(final long value) {
+        final int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS + 1));
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long highest(final int index) {
+        if (index < 2 * SUB_BUCKETS) return index;
+
+        final int shift = (index >> SUB_BUCKET_BITS) - 1;
+        final long mantissa = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    private static long valueAt(final long[] counts, final long count, final double percentile, final long max) {
+        if (count == 0) return 0;
+
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(highest(i), max);
+        }
+
+        return max;
+    }
+}
@@ -0,0 +1,41 @@
+package org.faya.sensei.pathfinding;
+
+/**
+ * Management view of {@link PathfinderMetrics}, latencies are in
+ * nanoseconds.
+ */
+public interface IPathfinderMetricsMXBean {
+
+    long getQueries();
+
+    long getFound();
+
+    long getExpanded();
+
+    long getPushes();
+
+    long getDecreases();
+
+    long getPathLength();
+
+    double getLatencyMean();
+
+    long getLatencyP50();
+
+    long getLatencyP99();
+
+    long getLatencyP999();
+
+    long getLatencyMax();
+
+    long getExpandedP50();
+
+    long getExpandedP99();
+
+    long getExpandedP999();
+
+    /**
+     * Clears every counter and histogram.
+     */
+    void reset();
+}
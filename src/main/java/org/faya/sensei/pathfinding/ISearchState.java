@@ -0,0 +1,94 @@
+package org.faya.sensei.pathfinding;
+
+/**
+ * Per node bookkeeping of a search, addressed by node id so the pathfinder does
+ * not have to write into the nodes of a shared graph. A node nothing was set on
+ * since the last {@link #clear()} reads as unvisited: an infinite G cost, no
+ * parent and {@link #UNVISITED}.
+ */
+public interface ISearchState {
+
+    /**
+     * Heap index of a node that has not been reached yet.
+     */
+    int UNVISITED = -1;
+
+    /**
+     * Heap index of a node that has been expanded.
+     */
+    int CLOSED = -2;
+
+    /**
+     * Retrieves the number of nodes the state can hold.
+     *
+     * @return The capacity.
+     */
+    int getCapacity();
+
+    /**
+     * Retrieves the cost from the start node to a node (G cost).
+     *
+     * @param id The id of the node.
+     * @return The G cost of the node.
+     */
+    double getGCost(final int id);
+
+    /**
+     * Sets the cost from the start node to a node (G cost).
+     *
+     * @param id    The id of the node.
+     * @param gCost The G cost to be set.
+     */
+    void setGCost(final int id, final double gCost);
+
+    /**
+     * Retrieves the parent of a node.
+     *
+     * @param id The id of the node.
+     * @return The parent id, or -1 if the node has no parent.
+     */
+    int getParent(final int id);
+
+    /**
+     * Sets the parent of a node.
+     *
+     * @param id     The id of the node.
+     * @param parent The parent id.
+     */
+    void setParent(final int id, final int parent);
+
+    /**
+     * Retrieves the position of a node in the open set.
+     *
+     * @param id The id of the node.
+     * @return The heap index, {@link #UNVISITED} or {@link #CLOSED}.
+     */
+    int getHeapIndex(final int id);
+
+    /**
+     * Sets the position of a node in the open set.
+     *
+     * @param id        The id of the node.
+     * @param heapIndex The heap index, {@link #UNVISITED} or {@link #CLOSED}.
+     */
+    void setHeapIndex(final int id, final int heapIndex);
+
+    /**
+     * Restores a node to its unvisited state.
+     *
+     * @param id The id of the node.
+     */
+    default void reset(final int id) {
+        setGCost(id, Double.POSITIVE_INFINITY);
+        setParent(id, -1);
+        setHeapIndex(id, UNVISITED);
+    }
+
+    /**
+     * Restores every node to its unvisited state, called before each search.
+     * It runs on every query, so it must not cost a pass over the capacity:
+     * the provided states stamp their nodes with a generation and clear in
+     * constant time.
+     */
+    void clear();
+}
@@ -0,0 +1,67 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.IHeuristic;
+import org.faya.sensei.graph.AbstractGridGraph;
+
+/**
+ * Lazy Theta*, gives every neighbor the parent of the expanded node without
+ * checking the line of sight and only checks it once the neighbor leaves the
+ * open set. Most opened nodes are never expanded, so most checks are never
+ * made. When the check fails the node falls back to its best closed neighbor.
+ */
+public class LazyThetaStarPathfinder extends ThetaStarPathfinder {
+
+    private final int[] neighbors;
+    private final double[] costs;
+
+    public LazyThetaStarPathfinder(final AbstractGridGraph grid, final IHeuristic heuristic) {
+        this(grid, heuristic, new HeapSearchState(grid.getNodeCount()));
+    }
+
+    public LazyThetaStarPathfinder(final AbstractGridGraph grid, final IHeuristic heuristic, final ISearchState state) {
+        super(grid, heuristic, state);
+
+        this.neighbors = new int[grid.getMaxDegree()];
+        this.costs = new double[grid.getMaxDegree()];
+    }
+
+    // Function
+
+    @Override
+    protected void settle(final int current) {
+        final int parent = state.getParent(current);
+        if (parent < 0 || lineOfSight(parent, current)) return;
+
+        int best = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        final int count = grid.getNeighbors(current, neighbors, costs);
+        for (int i = 0; i < count; i++) {
+            final int neighbor = neighbors[i];
+            if (state.getHeapIndex(neighbor) != ISearchState.CLOSED) continue;
+
+            final double cost = state.getGCost(neighbor) + distance(neighbor, current);
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = neighbor;
+            }
+        }
+
+        state.setParent(current, best);
+        state.setGCost(current, bestCost);
+    }
+
+    @Override
+    protected void expand(final int current) {
+        final int parent = state.getParent(current);
+        final int origin = parent >= 0 ? parent : current;
+        final double gCost = state.getGCost(origin);
+        final int count = grid.getNeighbors(current, neighbors, costs);
+
+        for (int i = 0; i < count; i++) {
+            final int neighbor = neighbors[i];
+            if (state.getHeapIndex(neighbor) == ISearchState.CLOSED) continue;
+
+            update(neighbor, origin, gCost + distance(origin, neighbor));
+        }
+    }
+}
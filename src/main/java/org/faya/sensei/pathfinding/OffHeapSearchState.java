@@ -0,0 +1,97 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.graph.OffHeapBuffer;
+
+/**
+ * Search state kept outside the Java heap, the fields of a node are packed in
+ * one 24 byte record: the G cost, the parent id, the heap index and the
+ * generation the record was last written in. Records from an older generation
+ * read as unvisited, so {@link #clear()} only bumps the generation.
+ */
+public class OffHeapSearchState implements ISearchState {
+
+    private static final int RECORD_SIZE = 24;
+    private static final int PARENT_OFFSET = 8;
+    private static final int HEAP_INDEX_OFFSET = 12;
+    private static final int GENERATION_OFFSET = 16;
+
+    private final OffHeapBuffer records;
+    private final int capacity;
+
+    /**
+     * Starts above the zero the records are allocated with, so a new state is
+     * clear.
+     */
+    private int generation = 1;
+
+    public OffHeapSearchState(final int capacity) {
+        this.records = OffHeapBuffer.allocate((long) capacity * RECORD_SIZE);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public double getGCost(final int id) {
+        return isCurrent(id) ? records.getDouble((long) id * RECORD_SIZE) : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public void setGCost(final int id, final double gCost) {
+        stamp(id);
+        records.putDouble((long) id * RECORD_SIZE, gCost);
+    }
+
+    @Override
+    public int getParent(final int id) {
+        return isCurrent(id) ? records.getInt((long) id * RECORD_SIZE + PARENT_OFFSET) : -1;
+    }
+
+    @Override
+    public void setParent(final int id, final int parent) {
+        stamp(id);
+        records.putInt((long) id * RECORD_SIZE + PARENT_OFFSET, parent);
+    }
+
+    @Override
+    public int getHeapIndex(final int id) {
+        return isCurrent(id) ? records.getInt((long) id * RECORD_SIZE + HEAP_INDEX_OFFSET) : UNVISITED;
+    }
+
+    @Override
+    public void setHeapIndex(final int id, final int heapIndex) {
+        stamp(id);
+        records.putInt((long) id * RECORD_SIZE + HEAP_INDEX_OFFSET, heapIndex);
+    }
+
+    @Override
+    public void clear() {
+        // After 2^32 searches the stamps wrap around, an old one could match
+        // again, so they are wiped once.
+        if (++generation == 0) {
+            records.fill((byte) 0);
+            generation = 1;
+        }
+    }
+
+    private boolean isCurrent(final int id) {
+        return records.getInt((long) id * RECORD_SIZE + GENERATION_OFFSET) == generation;
+    }
+
+    /**
+     * Moves a record into the current generation, the fields not being
+     * written start from the unvisited values.
+     */
+    private void stamp(final int id) {
+        if (isCurrent(id)) return;
+
+        final long offset = (long) id * RECORD_SIZE;
+        records.putInt(offset + GENERATION_OFFSET, generation);
+        records.putDouble(offset, Double.POSITIVE_INFINITY);
+        records.putInt(offset + PARENT_OFFSET, -1);
+        records.putInt(offset + HEAP_INDEX_OFFSET, UNVISITED);
+    }
+}
@@ -0,0 +1,112 @@
+package org.faya.sensei.pathfinding;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of node ids ordered by F cost, ties go to the lower H cost.
+ * The heap index of every node is kept in the search state so a node can be
+ * moved up in place when a cheaper route to it is found.
+ */
+final class OpenSet {
+
+    private final ISearchState state;
+
+    private int[] ids = new int[64];
+    private double[] fCosts = new double[64];
+    private double[] hCosts = new double[64];
+    private int size;
+
+    OpenSet(final ISearchState state) {
+        this.state = state;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void push(final int id, final double fCost, final double hCost) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            fCosts = Arrays.copyOf(fCosts, size * 2);
+            hCosts = Arrays.copyOf(hCosts, size * 2);
+        }
+
+        siftUp(size++, id, fCost, hCost);
+    }
+
+    /**
+     * Lowers the F cost of a node that is already in the heap.
+     *
+     * @param id    The id of the node.
+     * @param fCost The new F cost.
+     * @param hCost The H cost.
+     */
+    void decrease(final int id, final double fCost, final double hCost) {
+        siftUp(state.getHeapIndex(id), id, fCost, hCost);
+    }
+
+    /**
+     * Removes the node with the lowest F cost and marks it closed.
+     *
+     * @return The id of the node.
+     */
+    int poll() {
+        final int top = ids[0];
+        state.setHeapIndex(top, ISearchState.CLOSED);
+
+        if (--size > 0) siftDown(0, ids[size], fCosts[size], hCosts[size]);
+
+        return top;
+    }
+
+    private void siftUp(int index, final int id, final double fCost, final double hCost) {
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (!less(fCost, hCost, fCosts[parent], hCosts[parent])) break;
+            move(parent, index);
+            index = parent;
+        }
+
+        place(index, id, fCost, hCost);
+    }
+
+    private void siftDown(int index, final int id, final double fCost, final double hCost) {
+        final int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            if (child + 1 < size && less(fCosts[child + 1], hCosts[child + 1], fCosts[child], hCosts[child])) child++;
+            if (!less(fCosts[child], hCosts[child], fCost, hCost)) break;
+            move(child, index);
+            index = child;
+        }
+
+        place(index, id, fCost, hCost);
+    }
+
+    private static boolean less(final double fCost, final double hCost,
+                                final double otherFCost, final double otherHCost) {
+        return fCost < otherFCost || (fCost == otherFCost && hCost < otherHCost);
+    }
+
+    private void move(final int from, final int to) {
+        ids[to] = ids[from];
+        fCosts[to] = fCosts[from];
+        hCosts[to] = hCosts[from];
+        state.setHeapIndex(ids[to], to);
+    }
+
+    private void place(final int index, final int id, final double fCost, final double hCost) {
+        ids[index] = id;
+        fCosts[index] = fCost;
+        hCosts[index] = hCost;
+        state.setHeapIndex(id, index);
+    }
+}
@@ -0,0 +1,188 @@
+package org.faya.sensei.pathfinding;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated counters of the searches run by the pathfinders it is attached
+ * to, see {@link AbstractPathfinder#setMetrics(PathfinderMetrics)}. One
+ * instance can be shared by pathfinders on many threads, such as every
+ * pathfinder of one map or one query type, recording never takes a lock.
+ */
+public final class PathfinderMetrics implements IPathfinderMetricsMXBean {
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder found = new LongAdder();
+    private final LongAdder expanded = new LongAdder();
+    private final LongAdder pushes = new LongAdder();
+    private final LongAdder decreases = new LongAdder();
+    private final LongAdder pathLength = new LongAdder();
+
+    private final Histogram latency = new Histogram();
+    private final Histogram expansions = new Histogram();
+
+    /**
+     * The metrics at one point in time.
+     *
+     * @param queries    The number of searches.
+     * @param found      The number of searches that found a path.
+     * @param expanded   The number of nodes expanded by all searches.
+     * @param pushes     The number of nodes pushed on the open sets.
+     * @param decreases  The number of decrease-key operations on the open sets.
+     * @param pathLength The number of nodes in all found paths.
+     * @param latency    The wall time per search, in nanoseconds.
+     * @param expansions The number of nodes expanded per search.
+     */
+    public record Snapshot(long queries, long found, long expanded, long pushes, long decreases, long pathLength,
+                           Histogram.Snapshot latency, Histogram.Snapshot expansions) { }
+
+    // Getter and setter
+
+    @Override
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    @Override
+    public long getFound() {
+        return found.sum();
+    }
+
+    @Override
+    public long getExpanded() {
+        return expanded.sum();
+    }
+
+    @Override
+    public long getPushes() {
+        return pushes.sum();
+    }
+
+    @Override
+    public long getDecreases() {
+        return decreases.sum();
+    }
+
+    @Override
+    public long getPathLength() {
+        return pathLength.sum();
+    }
+
+    @Override
+    public double getLatencyMean() {
+        return latency.snapshot().mean();
+    }
+
+    @Override
+    public long getLatencyP50() {
+        return latency.getValueAtPercentile(50.0);
+    }
+
+    @Override
+    public long getLatencyP99() {
+        return latency.getValueAtPercentile(99.0);
+    }
+
+    @Override
+    public long getLatencyP999() {
+        return latency.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getLatencyMax() {
+        return latency.snapshot().max();
+    }
+
+    @Override
+    public long getExpandedP50() {
+        return expansions.getValueAtPercentile(50.0);
+    }
+
+    @Override
+    public long getExpandedP99() {
+        return expansions.getValueAtPercentile(99.0);
+    }
+
+    @Override
+    public long getExpandedP999() {
+        return expansions.getValueAtPercentile(99.9);
+    }
+
+    // Function
+
+    /**
+     * Records one search.
+     *
+     * @param nanos      The wall time of the search.
+     * @param expanded   The number of nodes expanded.
+     * @param pushes     The number of nodes pushed on the open set.
+     * @param decreases  The number of decrease-key operations.
+     * @param pathLength The number of nodes in the path, 0 if none was found.
+     */
+    public void record(final long nanos, final int expanded, final int pushes, final int decreases, final int pathLength) {
+        queries.increment();
+        if (pathLength > 0) found.increment();
+        this.expanded.add(expanded);
+        this.pushes.add(pushes);
+        this.decreases.add(decreases);
+        this.pathLength.add(pathLength);
+
+        latency.record(nanos);
+        expansions.record(expanded);
+    }
+
+    /**
+     * Reads the metrics. Searches recorded during the call may be partly
+     * included.
+     *
+     * @return The snapshot.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(queries.sum(), found.sum(), expanded.sum(), pushes.sum(), decreases.sum(),
+                pathLength.sum(), latency.snapshot(), expansions.snapshot());
+    }
+
+    @Override
+    public void reset() {
+        queries.reset();
+        found.reset();
+        expanded.reset();
+        pushes.reset();
+        decreases.reset();
+        pathLength.reset();
+        latency.reset();
+        expansions.reset();
+    }
+
+    /**
+     * Registers the metrics on the platform MBean server, under
+     * {@code org.faya.sensei:type=PathfinderMetrics,name=<name>}.
+     *
+     * @param name The name telling the metrics apart, such as a map name.
+     * @return The name the metrics were registered under.
+     * @throws JMException If the name is invalid or already registered.
+     */
+    public ObjectName register(final String name) throws JMException {
+        final ObjectName objectName = objectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+
+        return objectName;
+    }
+
+    /**
+     * Removes the metrics registered under a name from the platform MBean
+     * server.
+     *
+     * @param name The name given to {@link #register(String)}.
+     * @throws JMException If nothing is registered under the name.
+     */
+    public static void unregister(final String name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName(name));
+    }
+
+    private static ObjectName objectName(final String name) throws JMException {
+        return new ObjectName("org.faya.sensei:type=PathfinderMetrics,name=" + ObjectName.quote(name));
+    }
+}
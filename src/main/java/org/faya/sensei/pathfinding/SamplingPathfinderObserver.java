@@ -0,0 +1,60 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.INode;
+import org.faya.sensei.IPathfinderObserver;
+
+import java.util.List;
+
+/**
+ * Observer adapter forwarding one processed node out of every {@code step},
+ * starting with the first one, and every finish. The count carries over
+ * batches and searches. An instance is not thread safe.
+ */
+public final class SamplingPathfinderObserver implements IPathfinderObserver {
+
+    private final IPathfinderObserver observer;
+    private final int step;
+
+    private int[] sample = new int[0];
+    private int phase;
+
+    /**
+     * Creates the adapter.
+     *
+     * @param observer The observer to forward to.
+     * @param step     The number of nodes per forwarded node.
+     */
+    public SamplingPathfinderObserver(final IPathfinderObserver observer, final int step) {
+        if (step <= 0) throw new IllegalArgumentException("Step must be positive.");
+
+        this.observer = observer;
+        this.step = step;
+    }
+
+    // Function
+
+    @Override
+    public void onNode(final INode node) {
+        if (phase == 0) observer.onNode(node);
+        if (++phase == step) phase = 0;
+    }
+
+    @Override
+    public void onNodes(final IIndexedGraph graph, final int[] ids, final int count) {
+        if (sample.length < count) sample = new int[count];
+
+        int sampled = 0;
+        for (int i = (step - phase) % step; i < count; i += step) {
+            sample[sampled++] = ids[i];
+        }
+        phase = (phase + count) % step;
+
+        if (sampled > 0) observer.onNodes(graph, sample, sampled);
+    }
+
+    @Override
+    public void onFinish(final List<INode> path) {
+        observer.onFinish(path);
+    }
+}
@@ -0,0 +1,68 @@
+package org.faya.sensei.pathfinding;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event around a {@code findPath} call of an
+ * {@link AStarPathfinder}. Disabled unless a recording turns it on, a
+ * disabled event costs a branch and its allocation is removed by the JIT.
+ */
+@Name("org.faya.sensei.Search")
+@Label("Path Search")
+@Description("Finds a path between two nodes.")
+@Category({"Sensei", "Pathfinding"})
+@Enabled(false)
+@StackTrace(false)
+final class SearchEvent extends Event {
+
+    @Label("Pathfinder")
+    String pathfinder;
+
+    @Label("Graph Id")
+    @Description("Identity hash of the graph, the same as in graph build events.")
+    int graph;
+
+    @Label("Start")
+    int start;
+
+    @Label("Goal")
+    int goal;
+
+    @Label("Expanded Nodes")
+    int expanded;
+
+    @Label("Pushed Nodes")
+    int pushes;
+
+    @Label("Path Length")
+    int pathLength;
+
+    // Function
+
+    /**
+     * Ends the event and commits it if the recording wants it.
+     *
+     * @param pathfinder The pathfinder that ran the search.
+     * @param start      The start node id.
+     * @param goal       The goal node id.
+     * @param pathLength The number of nodes in the path, 0 if none was found.
+     */
+    void end(final AStarPathfinder pathfinder, final int start, final int goal, final int pathLength) {
+        if (!shouldCommit()) return;
+
+        this.pathfinder = pathfinder.getClass().getSimpleName();
+        this.graph = System.identityHashCode(pathfinder.graph);
+        this.start = start;
+        this.goal = goal;
+        this.expanded = pathfinder.getExpandedCount();
+        this.pushes = pathfinder.getPushCount();
+        this.pathLength = pathLength;
+        commit();
+    }
+}
@@ -0,0 +1,84 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.IHeuristic;
+import org.faya.sensei.graph.AbstractGridGraph;
+
+/**
+ * Theta* over a grid graph, an any-angle variant of A* where a node may take
+ * the parent of the node expanding it when the two see each other. The path
+ * is made of the turning points only and follows straight lines between
+ * them, so it needs no smoothing afterwards. Edge costs are the distances
+ * between cell centers, cell costs of the grid are not used.
+ */
+public class ThetaStarPathfinder extends AStarPathfinder {
+
+    protected final AbstractGridGraph grid;
+
+    private final int[] neighbors;
+    private final double[] costs;
+    private final double[] from;
+    private final double[] to;
+
+    public ThetaStarPathfinder(final AbstractGridGraph grid, final IHeuristic heuristic) {
+        this(grid, heuristic, new HeapSearchState(grid.getNodeCount()));
+    }
+
+    public ThetaStarPathfinder(final AbstractGridGraph grid, final IHeuristic heuristic, final ISearchState state) {
+        super(grid, heuristic, state);
+
+        this.grid = grid;
+        this.neighbors = new int[grid.getMaxDegree()];
+        this.costs = new double[grid.getMaxDegree()];
+        this.from = new double[grid.getDimensions()];
+        this.to = new double[grid.getDimensions()];
+    }
+
+    // Function
+
+    @Override
+    protected void expand(final int current) {
+        final int parent = state.getParent(current);
+        final int count = grid.getNeighbors(current, neighbors, costs);
+
+        for (int i = 0; i < count; i++) {
+            final int neighbor = neighbors[i];
+            if (state.getHeapIndex(neighbor) == ISearchState.CLOSED) continue;
+
+            if (parent >= 0 && lineOfSight(parent, neighbor)) {
+                update(neighbor, parent, state.getGCost(parent) + distance(parent, neighbor));
+            } else {
+                update(neighbor, current, state.getGCost(current) + distance(current, neighbor));
+            }
+        }
+    }
+
+    /**
+     * Checks whether two cells see each other.
+     *
+     * @param from The id of the first cell.
+     * @param to   The id of the second cell.
+     * @return {@code true} if the segment between them is traversable.
+     */
+    protected boolean lineOfSight(final int from, final int to) {
+        return grid.hasLineOfSight(from, to);
+    }
+
+    /**
+     * Calculates the distance between two cell centers.
+     *
+     * @param a The id of the first cell.
+     * @param b The id of the second cell.
+     * @return The Euclidean distance.
+     */
+    protected double distance(final int a, final int b) {
+        grid.getPosition(a, from);
+        grid.getPosition(b, to);
+
+        double distance = 0.0;
+        for (int axis = 0; axis < from.length; axis++) {
+            distance += (from[axis] - to[axis]) * (from[axis] - to[axis]);
+        }
+
+        return Math.sqrt(distance);
+    }
+}
@@ -0,0 +1,73 @@
+package org.faya.sensei.pathfinding;
+
+import org.faya.sensei.IEdge;
+import org.faya.sensei.IGraph;
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.INode;
+
+import java.util.List;
+
+/**
+ * A graph without ids seen as an indexed graph holding no node, the node
+ * queries go to the wrapped graph. A pathfinder built on it searches through
+ * the nodes themselves.
+ *
+ * @param graph The wrapped graph.
+ */
+record UnindexedGraph(IGraph graph) implements IIndexedGraph {
+
+    @Override
+    public int getNodeCount() {
+        return 0;
+    }
+
+    @Override
+    public int getDimensions() {
+        return 0;
+    }
+
+    @Override
+    public int getMaxDegree() {
+        return 0;
+    }
+
+    @Override
+    public int getId(final INode node) {
+        return -1;
+    }
+
+    @Override
+    public void getPosition(final int id, final double[] position) {
+        throw new IndexOutOfBoundsException(id);
+    }
+
+    @Override
+    public int getNeighbors(final int id, final int[] neighbors, final double[] costs) {
+        throw new IndexOutOfBoundsException(id);
+    }
+
+    @Override
+    public INode getNode(final int id) {
+        return graph.getNode(id);
+    }
+
+    @Override
+    public INode getNode(final double[] position) {
+        return graph.getNode(position);
+    }
+
+    @Override
+    public IEdge getEdge(final INode from, final INode to) {
+        return graph.getEdge(from, to);
+    }
+
+    @Override
+    public List<INode> getNeighbors(final INode node) {
+        return graph.getNeighbors(node);
+    }
+
+    @Override
+    public List<IEdge> getEdges(final INode node) {
+        return graph.getEdges(node);
+    }
+}
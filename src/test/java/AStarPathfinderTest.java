@@ -0,0 +1,218 @@
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.INode;
+import org.faya.sensei.IPathfinderObserver;
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.HeapSearchState;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.faya.sensei.pathfinding.ISearchState;
+import org.faya.sensei.pathfinding.OffHeapSearchState;
+import org.faya.sensei.pathfinding.SamplingPathfinderObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AStarPathfinderTest {
+
+    private AbstractGridGraph graph;
+
+    private AStarPathfinder pathfinder;
+
+    @BeforeEach
+    public void setUp() {
+        graph = new GraphBuilder().build(5, 5);
+        pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+    }
+
+    @Test
+    public void testFindPath() {
+        final INode start = graph.getNode(new double[]{0, 0});
+        final INode goal = graph.getNode(new double[]{4, 4});
+
+        final List<INode> path = pathfinder.findPath(start, goal);
+
+        assertEquals(9, path.size());
+        assertEquals(start, path.get(0));
+        assertEquals(goal, path.get(path.size() - 1));
+        assertContinuous(path);
+    }
+
+    @Test
+    public void testFindPath_Obstacle() {
+        // • • • • G
+        // • X X X P
+        // • • • X P
+        // • • • X P
+        // S P P P P
+
+        for (final int[] obstacle : new int[][]{{1, 3}, {2, 3}, {3, 1}, {3, 2}, {3, 3}}) {
+            graph.setTraversable(obstacle[0], obstacle[1], false);
+        }
+
+        final List<INode> path = pathfinder.findPath(graph.getNode(new double[]{0, 0}), graph.getNode(new double[]{4, 4}));
+
+        assertEquals(9, path.size());
+        assertContinuous(path);
+        for (final INode node : path) {
+            assertTrue(graph.isTraversable((int) node.getPosition()[0], (int) node.getPosition()[1]));
+        }
+    }
+
+    @Test
+    public void testFindPath_EmptyPath() {
+        for (final int[] obstacle : new int[][]{{0, 1}, {1, 0}, {1, 1}}) {
+            graph.setTraversable(obstacle[0], obstacle[1], false);
+        }
+
+        final List<INode> path = pathfinder.findPath(graph.getNode(new double[]{0, 0}), graph.getNode(new double[]{4, 4}));
+
+        assertTrue(path.isEmpty());
+    }
+
+    @Test
+    public void testFindPath_Reuse() {
+        final int[] path = new int[32];
+
+        assertEquals(9, pathfinder.findPath(graph.getId(0, 0, 0), graph.getId(4, 4, 0), path));
+
+        graph.setTraversable(0, 1, false);
+        graph.setTraversable(1, 0, false);
+
+        assertEquals(0, pathfinder.findPath(graph.getId(0, 0, 0), graph.getId(4, 4, 0), path));
+        assertEquals(5, pathfinder.findPath(graph.getId(4, 0, 0), graph.getId(4, 4, 0), path));
+        assertArrayEquals(new int[]{4, 9, 14, 19, 24}, Arrays.copyOf(path, 5));
+    }
+
+    @Test
+    public void testFindPath_OffHeapState() {
+        final AbstractGridGraph volume = new GraphBuilder()
+                .gridStorage(GraphBuilder.GridStorage.OFF_HEAP)
+                .build(6, 6, 6);
+        for (int x = 0; x < 6; x++) {
+            for (int y = 0; y < 5; y++) {
+                volume.setTraversable(x, y, 3, false);
+            }
+        }
+
+        final AStarPathfinder offHeap = new AStarPathfinder(volume, Heuristic.MANHATTAN,
+                new OffHeapSearchState(volume.getNodeCount()));
+        final int[] path = new int[64];
+        final int length = offHeap.findPath(volume.getId(0, 0, 0), volume.getId(0, 0, 5), path);
+
+        assertEquals(16, length);
+        assertEquals(volume.getId(0, 0, 5), path[length - 1]);
+    }
+
+    @Test
+    public void testSearchState_Clear() {
+        for (final ISearchState state : List.of(new HeapSearchState(8), new OffHeapSearchState(8))) {
+            state.setGCost(3, 2.5);
+            state.setParent(3, 1);
+            state.setHeapIndex(3, ISearchState.CLOSED);
+            state.clear();
+
+            assertEquals(Double.POSITIVE_INFINITY, state.getGCost(3));
+            assertEquals(-1, state.getParent(3));
+            assertEquals(ISearchState.UNVISITED, state.getHeapIndex(3));
+
+            // Writing one field after a clear must not revive the others.
+            state.setParent(3, 2);
+            assertEquals(2, state.getParent(3));
+            assertEquals(Double.POSITIVE_INFINITY, state.getGCost(3));
+            assertEquals(ISearchState.UNVISITED, state.getHeapIndex(3));
+        }
+    }
+
+    @Test
+    public void testRegisterObserver() {
+        final List<INode> visited = new ArrayList<>();
+        final List<List<INode>> finished = new ArrayList<>();
+
+        pathfinder.registerObserver(new IPathfinderObserver() {
+
+            @Override
+            public void onNode(final INode node) {
+                visited.add(node);
+            }
+
+            @Override
+            public void onFinish(final List<INode> path) {
+                finished.add(path);
+            }
+        });
+
+        final List<INode> path = pathfinder.findPath(graph.getNode(new double[]{0, 0}), graph.getNode(new double[]{4, 4}));
+
+        assertEquals(graph.getNode(new double[]{0, 0}), visited.get(0));
+        assertEquals(graph.getNode(new double[]{4, 4}), visited.get(visited.size() - 1));
+        assertEquals(List.of(path), finished);
+    }
+
+    @Test
+    public void testRegisterObserver_Bulk() {
+        final AbstractGridGraph wide = new GraphBuilder().build(64, 64);
+        final List<INode> visited = new ArrayList<>();
+        final List<Integer> ids = new ArrayList<>();
+        final List<INode> sampled = new ArrayList<>();
+
+        final AStarPathfinder bulk = new AStarPathfinder(wide, Heuristic.EUCLIDEAN);
+        bulk.registerObserver(recorder(visited));
+        bulk.registerObserver(new IPathfinderObserver() {
+
+            @Override
+            public void onNode(final INode node) {
+                fail("Bulk observers only receive ids.");
+            }
+
+            @Override
+            public void onNodes(final IIndexedGraph graph, final int[] batch, final int count) {
+                for (int i = 0; i < count; i++) ids.add(batch[i]);
+            }
+
+            @Override
+            public void onFinish(final List<INode> path) { }
+        });
+        bulk.registerObserver(new SamplingPathfinderObserver(recorder(sampled), 3));
+
+        bulk.findPath(wide.getNode(0), wide.getNode(wide.getNodeCount() - 1));
+        bulk.findPath(wide.getNode(0), wide.getNode(wide.getNodeCount() - 1));
+
+        assertTrue(visited.size() > 2 * 256);
+        assertEquals(visited.size(), ids.size());
+        for (int i = 0; i < visited.size(); i++) {
+            assertEquals(wide.getNode(ids.get(i)), visited.get(i));
+        }
+
+        assertEquals((visited.size() + 2) / 3, sampled.size());
+        for (int i = 0; i < sampled.size(); i++) {
+            assertEquals(visited.get(i * 3), sampled.get(i));
+        }
+    }
+
+    private static IPathfinderObserver recorder(final List<INode> visited) {
+        return new IPathfinderObserver() {
+
+            @Override
+            public void onNode(final INode node) {
+                visited.add(node);
+            }
+
+            @Override
+            public void onFinish(final List<INode> path) { }
+        };
+    }
+
+    private static void assertContinuous(final List<INode> path) {
+        for (int i = 1; i < path.size(); i++) {
+            final double[] a = path.get(i - 1).getPosition();
+            final double[] b = path.get(i).getPosition();
+            assertEquals(1, Math.abs(a[0] - b[0]) + Math.abs(a[1] - b[1]));
+        }
+    }
+}
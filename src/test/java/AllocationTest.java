@@ -0,0 +1,180 @@
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphGenerator;
+import org.faya.sensei.graph.MeshGraph;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Funnel;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.faya.sensei.pathfinding.LazyThetaStarPathfinder;
+import org.faya.sensei.pathfinding.OffHeapSearchState;
+import org.faya.sensei.pathfinding.PathfinderMetrics;
+import org.faya.sensei.pathfinding.ThetaStarPathfinder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the searches that promise not to allocate once warm. Each case runs
+ * enough queries for the JIT to compile the search, then measures the bytes
+ * allocated by the test thread over many more.
+ */
+public class AllocationTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int QUERIES = 5_000;
+    private static final int PAIRS = 512;
+
+    /**
+     * Bytes per query, below the size of the smallest object so a single
+     * allocation per query fails the test.
+     */
+    private static final double BUDGET = 8.0;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static AbstractGridGraph grid;
+    private static MeshGraph mesh;
+
+    @BeforeAll
+    public static void setUpAll() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        grid = new GraphGenerator().seed(1).obstacles(64, 64, 0.2);
+        mesh = new GraphGenerator().seed(1).navmesh(24, 24, 0.1);
+    }
+
+    @Test
+    public void testGrid() {
+        final int[] path = new int[grid.getNodeCount()];
+        final AStarPathfinder pathfinder = new AStarPathfinder(grid, Heuristic.MANHATTAN);
+
+        assertAllocationFree(queries(grid, grid::isTraversable),
+                (start, goal) -> pathfinder.findPath(start, goal, path));
+    }
+
+    @Test
+    public void testGrid_OffHeapState() {
+        final int[] path = new int[grid.getNodeCount()];
+        final AStarPathfinder pathfinder = new AStarPathfinder(grid, Heuristic.MANHATTAN,
+                new OffHeapSearchState(grid.getNodeCount()));
+
+        assertAllocationFree(queries(grid, grid::isTraversable),
+                (start, goal) -> pathfinder.findPath(start, goal, path));
+    }
+
+    @Test
+    public void testGrid_Octile() {
+        final int[] path = new int[grid.getNodeCount()];
+        final AStarPathfinder pathfinder = new AStarPathfinder(grid.getOctileGraph(), Heuristic.OCTILE);
+
+        assertAllocationFree(queries(grid, grid::isTraversable),
+                (start, goal) -> pathfinder.findPath(start, goal, path));
+    }
+
+    @Test
+    public void testGrid_ThetaStar() {
+        final int[] path = new int[grid.getNodeCount()];
+        final ThetaStarPathfinder eager = new ThetaStarPathfinder(grid, Heuristic.EUCLIDEAN);
+        final ThetaStarPathfinder lazy = new LazyThetaStarPathfinder(grid, Heuristic.EUCLIDEAN);
+
+        assertAllocationFree(queries(grid, grid::isTraversable),
+                (start, goal) -> eager.findPath(start, goal, path));
+        assertAllocationFree(queries(grid, grid::isTraversable),
+                (start, goal) -> lazy.findPath(start, goal, path));
+    }
+
+    @Test
+    public void testGrid_Metrics() {
+        final int[] path = new int[grid.getNodeCount()];
+        final AStarPathfinder pathfinder = new AStarPathfinder(grid, Heuristic.MANHATTAN);
+        pathfinder.setMetrics(new PathfinderMetrics());
+
+        assertAllocationFree(queries(grid, grid::isTraversable),
+                (start, goal) -> pathfinder.findPath(start, goal, path));
+        assertEquals(WARMUP + QUERIES, pathfinder.getMetrics().getQueries());
+    }
+
+    @Test
+    public void testMesh() {
+        final int[] path = new int[mesh.getNodeCount()];
+        final AStarPathfinder pathfinder = new AStarPathfinder(mesh, Heuristic.EUCLIDEAN);
+
+        assertAllocationFree(queries(mesh, id -> true),
+                (start, goal) -> pathfinder.findPath(start, goal, path));
+    }
+
+    @Test
+    public void testMesh_Funnel() {
+        final MeshGraph.TriangleGraph triangles = mesh.getTriangleGraph();
+        final AStarPathfinder pathfinder = new AStarPathfinder(triangles, Heuristic.EUCLIDEAN);
+        final Funnel funnel = new Funnel();
+        final int[] corridor = new int[triangles.getNodeCount()];
+        final float[] points = new float[corridor.length * 3];
+        final double[] start = new double[3], goal = new double[3];
+
+        assertAllocationFree(queries(triangles, id -> true), (from, to) -> {
+            final int length = pathfinder.findPath(from, to, corridor);
+            triangles.getPosition(from, start);
+            triangles.getPosition(to, goal);
+
+            return funnel.funnel(mesh, corridor, length, start, goal, points);
+        });
+    }
+
+    /**
+     * Picks connected start and goal pairs on open nodes.
+     */
+    private static int[] queries(final IIndexedGraph graph, final IntPredicate open) {
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.EUCLIDEAN);
+        final SplittableRandom random = new SplittableRandom(1);
+        final int[] path = new int[0];
+        final int[] queries = new int[PAIRS * 2];
+
+        for (int i = 0; i < PAIRS; ) {
+            final int start = random.nextInt(graph.getNodeCount());
+            final int goal = random.nextInt(graph.getNodeCount());
+            if (start == goal || !open.test(start) || !open.test(goal)) continue;
+            if (pathfinder.findPath(start, goal, path) == 0) continue;
+
+            queries[i * 2] = start;
+            queries[i * 2 + 1] = goal;
+            i++;
+        }
+
+        return queries;
+    }
+
+    /**
+     * Runs the warm-up and the measured queries, the results are summed so the
+     * JIT cannot drop the searches.
+     */
+    private static void assertAllocationFree(final int[] queries, final Query query) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            final int pair = i % PAIRS * 2;
+            sink += query.run(queries[pair], queries[pair + 1]);
+        }
+
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < QUERIES; i++) {
+            final int pair = i % PAIRS * 2;
+            sink += query.run(queries[pair], queries[pair + 1]);
+        }
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(sink > 0);
+        assertTrue(allocated / (double) QUERIES < BUDGET,
+                allocated + " bytes allocated over " + QUERIES + " queries.");
+    }
+
+    @FunctionalInterface
+    private interface Query {
+
+        int run(final int start, final int goal);
+    }
+}
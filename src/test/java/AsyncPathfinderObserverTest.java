@@ -0,0 +1,193 @@
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.INode;
+import org.faya.sensei.IPathfinderObserver;
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.AsyncPathfinderObserver;
+import org.faya.sensei.pathfinding.AsyncPathfinderObserver.Backpressure;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncPathfinderObserverTest {
+
+    private AbstractGridGraph graph;
+
+    @BeforeEach
+    public void setUp() {
+        graph = new GraphBuilder().build(32, 32);
+    }
+
+    @Test
+    public void testBlock() {
+        final Recorder expected = new Recorder(0);
+        final Recorder actual = new Recorder(0);
+
+        final AStarPathfinder sync = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        sync.registerObserver(expected);
+        sync.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        try (final AsyncPathfinderObserver observer = new AsyncPathfinderObserver(graph, actual, 16, Backpressure.BLOCK)) {
+            pathfinder.registerObserver(observer);
+            pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+            pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+            assertEquals(0, observer.getDropped());
+        }
+
+        assertEquals(expected.nodes.size() * 2, actual.nodes.size());
+        assertEquals(expected.nodes, actual.nodes.subList(0, expected.nodes.size()));
+        assertEquals(List.of(expected.paths.get(0), expected.paths.get(0)), actual.paths);
+    }
+
+    @Test
+    public void testDrop() {
+        final Recorder actual = new Recorder(50_000);
+
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        final long dropped;
+        try (final AsyncPathfinderObserver observer = new AsyncPathfinderObserver(graph, actual, 8, Backpressure.DROP)) {
+            assertEquals(8, observer.getCapacity());
+            pathfinder.registerObserver(observer);
+            pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+            dropped = observer.getDropped();
+        }
+
+        assertTrue(dropped > 0);
+        assertEquals(expanded(), actual.nodes.size() + dropped);
+        assertEquals(1, actual.paths.size());
+    }
+
+    @Test
+    public void testSample() {
+        final Recorder actual = new Recorder(50_000);
+
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        final long dropped;
+        try (final AsyncPathfinderObserver observer = new AsyncPathfinderObserver(graph, actual, 64, Backpressure.SAMPLE)) {
+            pathfinder.registerObserver(observer);
+            pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+            dropped = observer.getDropped();
+        }
+
+        assertTrue(dropped > 0);
+        assertEquals(expanded(), actual.nodes.size() + dropped);
+        assertEquals(graph.getNode(0), actual.nodes.get(0));
+    }
+
+    @Test
+    public void testBatch() {
+        final int[] calls = new int[2];
+        final IPathfinderObserver counter = new IPathfinderObserver() {
+            @Override
+            public void onNode(final INode node) {
+                fail("Nodes are delivered in bulk.");
+            }
+
+            @Override
+            public void onNodes(final IIndexedGraph graph, final int[] ids, final int count) {
+                calls[0]++;
+                calls[1] += count;
+            }
+
+            @Override
+            public void onFinish(final List<INode> path) {
+            }
+        };
+
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        try (final AsyncPathfinderObserver observer = new AsyncPathfinderObserver(graph, counter, 1024, Backpressure.BLOCK)) {
+            pathfinder.registerObserver(observer);
+            pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+            assertNull(observer.getFailure());
+        }
+
+        assertEquals(expanded(), calls[1]);
+        assertTrue(calls[0] < calls[1]);
+    }
+
+    @Test
+    public void testFailure() {
+        final IllegalStateException thrown = new IllegalStateException();
+        final IPathfinderObserver failing = new IPathfinderObserver() {
+            @Override
+            public void onNode(final INode node) {
+                throw thrown;
+            }
+
+            @Override
+            public void onFinish(final List<INode> path) {
+            }
+        };
+
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        try (final AsyncPathfinderObserver observer = new AsyncPathfinderObserver(graph, failing, 8, Backpressure.BLOCK)) {
+            pathfinder.registerObserver(observer);
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+                pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+            });
+
+            assertSame(thrown, observer.getFailure());
+            assertTrue(observer.getDropped() > 0);
+        }
+    }
+
+    @Test
+    public void testClosed() {
+        final Recorder actual = new Recorder(0);
+        final AsyncPathfinderObserver observer = new AsyncPathfinderObserver(graph, actual, 8, Backpressure.BLOCK);
+        observer.close();
+
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        pathfinder.registerObserver(observer);
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1)));
+
+        assertEquals(expanded(), observer.getDropped());
+        assertTrue(actual.nodes.isEmpty());
+        assertTrue(actual.paths.isEmpty());
+    }
+
+    private int expanded() {
+        final Recorder recorder = new Recorder(0);
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        pathfinder.registerObserver(recorder);
+        pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+
+        return recorder.nodes.size();
+    }
+
+    /**
+     * Records the events on the observer thread, optionally slowed down.
+     */
+    private static final class Recorder implements IPathfinderObserver {
+
+        private final List<INode> nodes = new ArrayList<>();
+        private final List<List<INode>> paths = new ArrayList<>();
+        private final long delay;
+
+        private Recorder(final long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public void onNode(final INode node) {
+            final long end = System.nanoTime() + delay;
+            while (System.nanoTime() < end) Thread.onSpinWait();
+            nodes.add(node);
+        }
+
+        @Override
+        public void onFinish(final List<INode> path) {
+            paths.add(path);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.MeshGraph;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Funnel;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecorderTest {
+
+    @Test
+    public void testEvents() throws IOException {
+        final Path file = Files.createTempFile("sensei", ".jfr");
+        try (final Recording recording = new Recording()) {
+            recording.enable("org.faya.sensei.GraphBuild");
+            recording.enable("org.faya.sensei.Search");
+            recording.enable("org.faya.sensei.Funnel");
+            recording.start();
+
+            final AbstractGridGraph grid = new GraphBuilder().build(8, 8);
+            new AStarPathfinder(grid, Heuristic.MANHATTAN).findPath(0, grid.getNodeCount() - 1, new int[64]);
+
+            // A unit square split along its diagonal.
+            final MeshGraph mesh = new GraphBuilder().build(
+                    new float[]{0, 0, 0, 1, 0, 0, 0, 0, 1, 1, 0, 1}, new int[]{0, 2, 1, 1, 2, 3});
+            new Funnel().funnel(mesh, new int[]{0, 1}, 2,
+                    new double[]{0.2, 0, 0.2}, new double[]{0.8, 0, 0.8}, new float[12]);
+
+            recording.stop();
+            recording.dump(file);
+
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            final RecordedEvent build = find(events, "org.faya.sensei.GraphBuild");
+            final RecordedEvent search = find(events, "org.faya.sensei.Search");
+            final RecordedEvent funnel = find(events, "org.faya.sensei.Funnel");
+
+            assertEquals(64, build.getInt("nodes"));
+            assertEquals(System.identityHashCode(grid), build.getInt("graph"));
+            assertEquals(System.identityHashCode(grid), search.getInt("graph"));
+            assertEquals("AStarPathfinder", search.getString("pathfinder"));
+            assertEquals(15, search.getInt("pathLength"));
+            assertTrue(search.getInt("expanded") > 0);
+            assertEquals(System.identityHashCode(mesh), funnel.getInt("graph"));
+            assertEquals(2, funnel.getInt("corridor"));
+            assertEquals(2, funnel.getInt("points"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static RecordedEvent find(final List<RecordedEvent> events, final String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name))
+                .findFirst().orElseThrow(() -> new AssertionError("No " + name + " event."));
+    }
+}
@@ -0,0 +1,134 @@
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.MeshGraph;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Funnel;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FunnelTest {
+
+    //  z
+    //  3         +----+
+    //            |    |
+    //  2         +----+
+    //            |    |
+    //  1 +----+--+----+
+    //    |    |  |    |
+    //  0 +----+--+----+ x
+    //    0    1  2    3
+
+    private static final int[][] QUADS = {{0, 0}, {1, 0}, {2, 0}, {2, 1}, {2, 2}};
+
+    private MeshGraph mesh;
+    private AStarPathfinder pathfinder;
+    private Funnel funnel;
+
+    @BeforeEach
+    public void setUp() {
+        final float[] positions = new float[16 * 3];
+        for (int i = 0; i < 16; i++) {
+            positions[i * 3] = i % 4;
+            positions[i * 3 + 2] = (float) (i / 4);
+        }
+        final int[] indices = new int[QUADS.length * 6];
+        for (int q = 0, i = 0; q < QUADS.length; q++) {
+            final int corner = QUADS[q][0] + QUADS[q][1] * 4;
+            indices[i++] = corner;
+            indices[i++] = corner + 4;
+            indices[i++] = corner + 1;
+            indices[i++] = corner + 1;
+            indices[i++] = corner + 4;
+            indices[i++] = corner + 5;
+        }
+
+        mesh = new GraphBuilder().build(positions, indices);
+        pathfinder = new AStarPathfinder(mesh.getTriangleGraph(), Heuristic.EUCLIDEAN);
+        funnel = new Funnel();
+    }
+
+    @Test
+    public void testFunnel_Corner() {
+        final double[] start = {0.5, 0.0, 0.5}, goal = {2.5, 0.0, 2.5};
+        final float[] path = new float[3 * 8];
+
+        final int count = funnel(start, goal, path);
+
+        assertEquals(3, count);
+        assertArrayEquals(new float[]{0.5f, 0.0f, 0.5f, 2.0f, 0.0f, 1.0f, 2.5f, 0.0f, 2.5f}, Arrays.copyOf(path, 9));
+    }
+
+    @Test
+    public void testFunnel_Straight() {
+        final double[] start = {2.5, 0.0, 0.2}, goal = {2.6, 0.0, 2.8};
+        final float[] path = new float[3 * 8];
+
+        assertEquals(2, funnel(start, goal, path));
+        assertEquals(2.6f, path[3]);
+        assertEquals(2.8f, path[5]);
+    }
+
+    @Test
+    public void testFunnel_SameTriangle() {
+        final double[] start = {0.1, 0.0, 0.1}, goal = {0.2, 0.0, 0.3};
+        final float[] path = new float[3 * 8];
+
+        assertEquals(2, funnel(start, goal, path));
+    }
+
+    @Test
+    public void testFunnel_SmallBuffer() {
+        final double[] start = {0.5, 0.0, 0.5}, goal = {2.5, 0.0, 2.5};
+        final float[] path = new float[3];
+
+        assertEquals(3, funnel(start, goal, path));
+        assertArrayEquals(new float[]{0.5f, 0.0f, 0.5f}, path);
+    }
+
+    @Test
+    public void testFunnel_Batch() {
+        final int count = 500;
+        final Random random = new Random(17);
+        final int[][] corridors = new int[count][mesh.getTriangleCount()];
+        final int[] lengths = new int[count];
+        final double[] starts = new double[count * 3], goals = new double[count * 3];
+        for (int i = 0; i < count; i++) {
+            final int[] from = QUADS[random.nextInt(QUADS.length)], to = QUADS[random.nextInt(QUADS.length)];
+            starts[i * 3] = from[0] + random.nextDouble();
+            starts[i * 3 + 2] = from[1] + random.nextDouble();
+            goals[i * 3] = to[0] + random.nextDouble();
+            goals[i * 3 + 2] = to[1] + random.nextDouble();
+            lengths[i] = pathfinder.findPath(mesh.locate(Arrays.copyOfRange(starts, i * 3, i * 3 + 3)),
+                    mesh.locate(Arrays.copyOfRange(goals, i * 3, i * 3 + 3)), corridors[i]);
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final float[][] paths;
+        try {
+            paths = Funnel.funnel(mesh, corridors, lengths, starts, goals, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        final float[] expected = new float[3 * 16];
+        for (int i = 0; i < count; i++) {
+            final int points = funnel.funnel(mesh, corridors[i], lengths[i],
+                    Arrays.copyOfRange(starts, i * 3, i * 3 + 3), Arrays.copyOfRange(goals, i * 3, i * 3 + 3), expected);
+
+            assertArrayEquals(Arrays.copyOf(expected, points * 3), paths[i]);
+        }
+    }
+
+    private int funnel(final double[] start, final double[] goal, final float[] path) {
+        final int[] corridor = new int[mesh.getTriangleCount()];
+        final int length = pathfinder.findPath(mesh.locate(start), mesh.locate(goal), corridor);
+
+        return funnel.funnel(mesh, corridor, length, start, goal, path);
+    }
+}
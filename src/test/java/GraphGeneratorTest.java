@@ -0,0 +1,147 @@
+import org.faya.sensei.IIndexedGraph;
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphGenerator;
+import org.faya.sensei.graph.MeshGraph;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphGeneratorTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testObstacles() {
+        final AbstractGridGraph grid = new GraphGenerator().seed(1).obstacles(200, 100, 0.3);
+
+        int blocked = 0;
+        for (int id = 0; id < grid.getNodeCount(); id++) {
+            if (!grid.isTraversable(id)) blocked++;
+        }
+        assertEquals(0.3, blocked / (double) grid.getNodeCount(), 0.02);
+        assertNotEquals(cells(grid), cells(new GraphGenerator().seed(2).obstacles(200, 100, 0.3)));
+    }
+
+    @Test
+    public void testParallel() {
+        final GraphGenerator sequential = new GraphGenerator().seed(7);
+        final GraphGenerator parallel = new GraphGenerator().seed(7).parallel(pool);
+
+        assertEquals(cells(sequential.obstacles(70, 30, 5, 0.2)), cells(parallel.obstacles(70, 30, 5, 0.2)));
+        assertEquals(cells(sequential.maze(129, 65)), cells(parallel.maze(129, 65)));
+        assertEquals(cells(sequential.caves(130, 70, 0.45, 4)), cells(parallel.caves(130, 70, 0.45, 4)));
+        assertEquals(cells(sequential.caverns(40, 30, 20, 0.45, 2)), cells(parallel.caverns(40, 30, 20, 0.45, 2)));
+        assertEquals(cells(sequential.rooms(150, 90, 12)), cells(parallel.rooms(150, 90, 12)));
+    }
+
+    @Test
+    public void testMaze() {
+        final AbstractGridGraph grid = new GraphGenerator().seed(3).maze(41, 31);
+
+        // A perfect maze is a spanning tree of its open cells.
+        int open = 0, links = 0;
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if (!grid.isTraversable(x, y)) continue;
+                open++;
+                if (grid.isTraversable(x + 1, y)) links++;
+                if (grid.isTraversable(x, y + 1)) links++;
+            }
+        }
+        assertEquals(20 * 15, count(grid, id -> (id % 41) % 2 == 1 && (id / 41) % 2 == 1));
+        assertEquals(open - 1, links);
+        assertEquals(open, reachable(grid, grid.getId(1, 1, 0)));
+    }
+
+    @Test
+    public void testCaves() {
+        final AbstractGridGraph grid = new GraphGenerator().seed(5).caves(120, 80, 0.45, 4);
+        final int open = count(grid, grid::isTraversable);
+
+        assertTrue(open > grid.getNodeCount() / 4 && open < grid.getNodeCount() * 3 / 4);
+        assertEquals(cells(grid), cells(new GraphGenerator().seed(5).caves(120, 80, 0.45, 4)));
+    }
+
+    @Test
+    public void testRooms() {
+        final AbstractGridGraph grid = new GraphGenerator().seed(9).rooms(160, 100, 20);
+        final int open = count(grid, grid::isTraversable);
+
+        int start = 0;
+        while (!grid.isTraversable(start)) start++;
+        assertEquals(open, reachable(grid, start));
+        for (int x = 0; x < grid.getWidth(); x++) {
+            assertFalse(grid.isTraversable(x, 0));
+            assertFalse(grid.isTraversable(x, grid.getHeight() - 1));
+        }
+    }
+
+    @Test
+    public void testNavmesh() {
+        final MeshGraph mesh = new GraphGenerator().seed(11).parallel(pool).navmesh(30, 20, 0.0);
+
+        assertEquals(31 * 21, mesh.getVertexCount());
+        assertEquals(30 * 20 * 2, mesh.getTriangleCount());
+        assertEquals(mesh.getTriangleCount(), reachable(mesh.getTriangleGraph(), 0));
+        assertTrue(mesh.locate(new double[]{12.5, 0.0, 7.5}) >= 0);
+
+        final MeshGraph holes = new GraphGenerator().seed(11).navmesh(30, 20, 0.2);
+        assertEquals(0.8 * 30 * 20 * 2, holes.getTriangleCount(), 60);
+    }
+
+    private static BitSet cells(final AbstractGridGraph grid) {
+        final BitSet cells = new BitSet(grid.getNodeCount());
+        for (int id = 0; id < grid.getNodeCount(); id++) {
+            if (grid.isTraversable(id)) cells.set(id);
+        }
+
+        return cells;
+    }
+
+    private static int count(final AbstractGridGraph grid, final IntPredicate predicate) {
+        int count = 0;
+        for (int id = 0; id < grid.getNodeCount(); id++) {
+            if (grid.isTraversable(id) && predicate.test(id)) count++;
+        }
+
+        return count;
+    }
+
+    private static int reachable(final IIndexedGraph graph, final int start) {
+        final BitSet seen = new BitSet(graph.getNodeCount());
+        final int[] stack = new int[graph.getNodeCount()];
+        final int[] neighbors = new int[graph.getMaxDegree()];
+        final double[] costs = new double[graph.getMaxDegree()];
+        int top = 0, count = 0;
+
+        stack[top++] = start;
+        seen.set(start);
+        while (top > 0) {
+            final int id = stack[--top];
+            count++;
+            for (int i = 0, degree = graph.getNeighbors(id, neighbors, costs); i < degree; i++) {
+                if (seen.get(neighbors[i])) continue;
+                seen.set(neighbors[i]);
+                stack[top++] = neighbors[i];
+            }
+        }
+
+        return count;
+    }
+}
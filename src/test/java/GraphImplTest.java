@@ -17,9 +17,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -76,20 +74,20 @@ public class GraphImplTest {
             try (final InputStream inputStream = getClass().getClassLoader().getResourceAsStream("plane.glb")) {
                 assertNotNull(inputStream);
 
-                final Path tempFile = Files.createTempFile("tempPlane", ".gltf");
-                Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                final byte[] bytes = inputStream.readAllBytes();
+                final ByteBuffer data = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
 
-                try (final AIScene scene = Assimp.aiImportFile(tempFile.toString(),
-                        Assimp.aiProcess_JoinIdenticalVertices | Assimp.aiProcess_Triangulate)) {
-                    assertNotNull(scene);
+                final AIScene scene = Assimp.aiImportFileFromMemory(data,
+                        Assimp.aiProcess_JoinIdenticalVertices | Assimp.aiProcess_Triangulate, "glb");
+                assertNotNull(scene);
 
-                    try (final AIMesh mesh = AIMesh.create(Objects.requireNonNull(scene.mMeshes()).get(0))) {
-                        final IGraph graph = graphBuilder.build(mesh);
+                try {
+                    final AIMesh mesh = AIMesh.create(Objects.requireNonNull(scene.mMeshes()).get(0));
+                    final IGraph graph = graphBuilder.build(mesh);
 
-                        assertNotNull(graph);
-                    }
+                    assertNotNull(graph);
                 } finally {
-                    Files.deleteIfExists(tempFile);
+                    Assimp.aiReleaseImport(scene);
                 }
             }
         }
@@ -392,20 +390,20 @@ public class GraphImplTest {
             try (final InputStream inputStream = getClass().getClassLoader().getResourceAsStream("plane.glb")) {
                 assertNotNull(inputStream);
 
-                final Path tempFile = Files.createTempFile("tempPlane", ".gltf");
-                Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                final byte[] bytes = inputStream.readAllBytes();
+                final ByteBuffer data = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
 
-                try (final AIScene scene = Assimp.aiImportFile(tempFile.toString(),
-                        Assimp.aiProcess_JoinIdenticalVertices | Assimp.aiProcess_Triangulate)) {
-                    assertNotNull(scene);
+                final AIScene scene = Assimp.aiImportFileFromMemory(data,
+                        Assimp.aiProcess_JoinIdenticalVertices | Assimp.aiProcess_Triangulate, "glb");
+                assertNotNull(scene);
 
-                    try (final AIMesh mesh = AIMesh.create(Objects.requireNonNull(scene.mMeshes()).get(0))) {
-                        graph = graphBuilder.build(mesh);
+                try {
+                    final AIMesh mesh = AIMesh.create(Objects.requireNonNull(scene.mMeshes()).get(0));
+                    graph = graphBuilder.build(mesh);
 
-                        assertNotNull(graph);
-                    }
+                    assertNotNull(graph);
                 } finally {
-                    Files.deleteIfExists(tempFile);
+                    Assimp.aiReleaseImport(scene);
                 }
             }
         }
@@ -0,0 +1,395 @@
+import org.faya.sensei.INode;
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.ChunkedGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.OffHeapGridGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GridGraphTest {
+
+    @Nested
+    public class TwoDimensionalTest {
+
+        private AbstractGridGraph graph;
+
+        @BeforeEach
+        public void setUp() {
+            graph = new GraphBuilder().build(5, 5);
+        }
+
+        @Test
+        public void testGetNode() {
+            final INode node = graph.getNode(new double[]{2, 3});
+
+            assertNotNull(node);
+            assertArrayEquals(new double[]{2, 3}, node.getPosition());
+            assertSame(node, graph.getNode(new double[]{2, 3}));
+        }
+
+        @Test
+        public void testGetNode_OutOfBounds() {
+            assertNull(graph.getNode(new double[]{-1, 2}));
+            assertNull(graph.getNode(new double[]{2, -1}));
+            assertNull(graph.getNode(new double[]{5, 2}));
+            assertNull(graph.getNode(new double[]{2, 5}));
+        }
+
+        @Test
+        public void testGetNeighbors() {
+            final List<INode> neighbors = graph.getNeighbors(graph.getNode(new double[]{2, 2}));
+
+            assertEquals(4, neighbors.size());
+            assertTrue(neighbors.contains(graph.getNode(new double[]{1, 2})));
+            assertTrue(neighbors.contains(graph.getNode(new double[]{3, 2})));
+            assertTrue(neighbors.contains(graph.getNode(new double[]{2, 1})));
+            assertTrue(neighbors.contains(graph.getNode(new double[]{2, 3})));
+        }
+
+        @Test
+        public void testGetNeighbors_EdgeCase() {
+            final List<INode> neighbors = graph.getNeighbors(graph.getNode(new double[]{0, 0}));
+
+            assertEquals(2, neighbors.size());
+            assertTrue(neighbors.contains(graph.getNode(new double[]{1, 0})));
+            assertTrue(neighbors.contains(graph.getNode(new double[]{0, 1})));
+        }
+
+        @Test
+        public void testGetNeighbors_Obstacle() {
+            graph.setTraversable(1, 2, false);
+            graph.setTraversable(2, 3, false);
+
+            final List<INode> neighbors = graph.getNeighbors(graph.getNode(new double[]{2, 2}));
+
+            assertEquals(2, neighbors.size());
+            assertTrue(neighbors.contains(graph.getNode(new double[]{3, 2})));
+            assertTrue(neighbors.contains(graph.getNode(new double[]{2, 1})));
+        }
+
+        @Test
+        public void testGetNeighbors_WordBoundary() {
+            final AbstractGridGraph wide = new GraphBuilder().build(130, 2);
+            final int[] neighbors = new int[wide.getMaxDegree()];
+            final double[] costs = new double[neighbors.length];
+
+            assertEquals(3, wide.getNeighbors(wide.getId(64, 0, 0), neighbors, costs));
+            assertEquals(2, wide.getNeighbors(wide.getId(129, 0, 0), neighbors, costs));
+            assertEquals(2, wide.getNeighbors(wide.getId(0, 1, 0), neighbors, costs));
+
+            wide.setTraversable(63, 0, false);
+
+            assertEquals(2, wide.getNeighbors(wide.getId(64, 0, 0), neighbors, costs));
+            assertFalse(wide.isTraversable(63, 0));
+            assertTrue(wide.isTraversable(64, 0));
+        }
+
+        @Test
+        public void testHasLineOfSight() {
+            assertTrue(graph.hasLineOfSight(graph.getId(0, 0, 0), graph.getId(4, 2, 0)));
+            assertTrue(graph.hasLineOfSight(graph.getId(4, 4, 0), graph.getId(0, 0, 0)));
+
+            graph.setTraversable(2, 1, false);
+
+            assertFalse(graph.hasLineOfSight(graph.getId(0, 0, 0), graph.getId(4, 2, 0)));
+            assertFalse(graph.hasLineOfSight(graph.getId(4, 1, 0), graph.getId(0, 1, 0)));
+            assertTrue(graph.hasLineOfSight(graph.getId(0, 0, 0), graph.getId(4, 0, 0)));
+        }
+
+        @Test
+        public void testHasLineOfSight_Corner() {
+            // The diagonal passes exactly through the corner of a blocked cell.
+            graph.setTraversable(1, 0, false);
+
+            assertFalse(graph.hasLineOfSight(graph.getId(0, 0, 0), graph.getId(2, 2, 0)));
+            assertTrue(graph.hasLineOfSight(graph.getId(0, 1, 0), graph.getId(3, 4, 0)));
+        }
+
+        @Test
+        public void testHasLineOfSight_Run() {
+            final AbstractGridGraph wide = new GraphBuilder().build(200, 3);
+
+            assertTrue(wide.hasLineOfSight(wide.getId(0, 1, 0), wide.getId(199, 1, 0)));
+            assertTrue(wide.hasLineOfSight(wide.getId(199, 0, 0), wide.getId(0, 2, 0)));
+
+            wide.setTraversable(130, 1, false);
+
+            assertFalse(wide.hasLineOfSight(wide.getId(199, 1, 0), wide.getId(0, 1, 0)));
+            assertFalse(wide.hasLineOfSight(wide.getId(199, 0, 0), wide.getId(0, 2, 0)));
+            assertTrue(wide.hasLineOfSight(wide.getId(0, 0, 0), wide.getId(199, 0, 0)));
+        }
+
+        @Test
+        public void testSmoothPath() {
+            // Along the bottom row then up the right column.
+            final int[] path = new int[9];
+            for (int i = 0; i < 5; i++) path[i] = graph.getId(i, 0, 0);
+            for (int i = 1; i < 5; i++) path[4 + i] = graph.getId(4, i, 0);
+
+            final int[] open = path.clone();
+            assertEquals(2, graph.smoothPath(open, open.length));
+            assertEquals(graph.getId(0, 0, 0), open[0]);
+            assertEquals(graph.getId(4, 4, 0), open[1]);
+
+            graph.setTraversable(2, 2, false);
+            graph.setTraversable(3, 3, false);
+            final int length = graph.smoothPath(path, path.length);
+
+            assertTrue(length > 2 && length < 9);
+            assertEquals(graph.getId(0, 0, 0), path[0]);
+            assertEquals(graph.getId(4, 4, 0), path[length - 1]);
+            for (int i = 1; i < length; i++) {
+                assertTrue(graph.hasLineOfSight(path[i - 1], path[i]));
+            }
+        }
+    }
+
+    @Nested
+    public class ThreeDimensionalTest {
+
+        private AbstractGridGraph graph;
+
+        @BeforeEach
+        public void setUp() {
+            graph = new GraphBuilder().build(5, 5, 5);
+        }
+
+        @Test
+        public void testGetNode() {
+            final INode node = graph.getNode(new double[]{1, 2, 3});
+
+            assertArrayEquals(new double[]{1, 2, 3}, node.getPosition());
+        }
+
+        @Test
+        public void testGetNode_OutOfBounds() {
+            assertNull(graph.getNode(new double[]{2, 2, -1}));
+            assertNull(graph.getNode(new double[]{2, 2, 5}));
+        }
+
+        @Test
+        public void testGetNeighbors() {
+            final List<INode> neighbors = graph.getNeighbors(graph.getNode(new double[]{2, 2, 2}));
+
+            assertEquals(6, neighbors.size());
+            assertTrue(neighbors.contains(graph.getNode(new double[]{2, 2, 1})));
+            assertTrue(neighbors.contains(graph.getNode(new double[]{2, 2, 3})));
+        }
+
+        @Test
+        public void testGetNeighbors_EdgeCase() {
+            graph.setTraversable(0, 0, 1, false);
+
+            final List<INode> neighbors = graph.getNeighbors(graph.getNode(new double[]{0, 0, 0}));
+
+            assertEquals(2, neighbors.size());
+            assertTrue(neighbors.contains(graph.getNode(new double[]{1, 0, 0})));
+            assertTrue(neighbors.contains(graph.getNode(new double[]{0, 1, 0})));
+        }
+    }
+
+    @Nested
+    public class OffHeapTest {
+
+        private OffHeapGridGraph graph;
+
+        @BeforeEach
+        public void setUp() {
+            graph = (OffHeapGridGraph) new GraphBuilder()
+                    .gridStorage(GraphBuilder.GridStorage.OFF_HEAP)
+                    .build(5, 5, 5);
+        }
+
+        @Test
+        public void testGetNeighbors() {
+            final List<INode> neighbors = graph.getNeighbors(graph.getNode(new double[]{2, 2, 2}));
+
+            assertEquals(6, neighbors.size());
+        }
+
+        @Test
+        public void testGetNeighbors_Cost() {
+            graph.setCost(2, 2, 3, 7);
+            graph.setCost(2, 3, 2, OffHeapGridGraph.BLOCKED);
+
+            final int[] neighbors = new int[graph.getMaxDegree()];
+            final double[] costs = new double[neighbors.length];
+            final int count = graph.getNeighbors(graph.getId(2, 2, 2), neighbors, costs);
+
+            assertEquals(5, count);
+            for (int i = 0; i < count; i++) {
+                assertEquals(neighbors[i] == graph.getId(2, 2, 3) ? 7 : 1, costs[i]);
+            }
+        }
+
+        @Test
+        public void testGridFile() throws IOException {
+            final Path file = Files.createTempFile("grid", ".bin");
+            Files.delete(file);
+
+            try {
+                final OffHeapGridGraph mapped = (OffHeapGridGraph) new GraphBuilder().gridFile(file).build(4, 4, 4);
+                mapped.setTraversable(1, 2, 3, false);
+                mapped.setCost(3, 3, 3, 9);
+
+                final OffHeapGridGraph reopened = (OffHeapGridGraph) new GraphBuilder().gridFile(file).build(4, 4, 4);
+
+                assertEquals(64, Files.size(file));
+                assertFalse(reopened.isTraversable(1, 2, 3));
+                assertTrue(reopened.isTraversable(0, 0, 0));
+                assertEquals(9, reopened.getCost(reopened.getId(3, 3, 3)));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        @Test
+        public void testGridFile_SizeMismatch() throws IOException {
+            final Path file = Files.createTempFile("grid", ".bin");
+            Files.delete(file);
+
+            try {
+                new GraphBuilder().gridFile(file).build(4, 4, 4);
+
+                assertThrows(UncheckedIOException.class, () -> new GraphBuilder().gridFile(file).build(4, 4, 5));
+                assertThrows(UncheckedIOException.class, () -> new GraphBuilder().gridFile(file).build(4, 4, 3));
+                assertEquals(64, Files.size(file));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Nested
+    public class ChunkedTest {
+
+        private ChunkedGridGraph graph;
+
+        @BeforeEach
+        public void setUp() {
+            graph = (ChunkedGridGraph) new GraphBuilder()
+                    .gridStorage(GraphBuilder.GridStorage.CHUNKED)
+                    .build(40, 40, 40);
+        }
+
+        @Test
+        public void testUniformChunks() {
+            graph.fill(0, 0, 0, 40, 16, 40, false);
+
+            assertEquals(0, graph.getAllocatedChunkCount());
+            assertFalse(graph.isTraversable(5, 5, 5));
+            assertTrue(graph.isTraversable(5, 16, 5));
+
+            graph.fill(0, 0, 0, 40, 20, 40, false);
+
+            assertEquals(9, graph.getAllocatedChunkCount());
+            assertFalse(graph.isTraversable(39, 19, 39));
+            assertTrue(graph.isTraversable(39, 20, 39));
+        }
+
+        @Test
+        public void testGetNode_LargeVolume() {
+            // A slot per node would take gigabytes here, handles must only
+            // cost memory where they are created.
+            final AbstractGridGraph volume = new GraphBuilder()
+                    .gridStorage(GraphBuilder.GridStorage.CHUNKED)
+                    .build(1024, 1024, 1024);
+            final INode first = volume.getNode(0);
+            final INode last = volume.getNode(volume.getNodeCount() - 1);
+
+            assertArrayEquals(new double[]{1023, 1023, 1023}, last.getPosition());
+            assertSame(first, volume.getNode(new double[]{0, 0, 0}));
+            assertEquals(3, volume.getNeighbors(last).size());
+        }
+
+        @Test
+        public void testSetTraversable() {
+            graph.setTraversable(17, 3, 3, false);
+
+            assertEquals(1, graph.getAllocatedChunkCount());
+            assertFalse(graph.isTraversable(17, 3, 3));
+
+            graph.setTraversable(17, 3, 3, true);
+            graph.compact();
+
+            assertEquals(0, graph.getAllocatedChunkCount());
+        }
+
+        @Test
+        public void testCompact_BorderChunk() {
+            for (int z = 0; z < 16; z++) {
+                for (int y = 0; y < 16; y++) {
+                    for (int x = 32; x < 40; x++) {
+                        graph.setTraversable(x, y, z, false);
+                    }
+                }
+            }
+            graph.compact();
+
+            assertEquals(0, graph.getAllocatedChunkCount());
+            assertFalse(graph.isTraversable(39, 15, 15));
+
+            for (int z = 0; z < 16; z++) {
+                for (int y = 0; y < 16; y++) {
+                    for (int x = 32; x < 40; x++) {
+                        graph.setTraversable(x, y, z, true);
+                    }
+                }
+            }
+            graph.compact();
+
+            assertEquals(0, graph.getAllocatedChunkCount());
+            assertTrue(graph.isTraversable(39, 15, 15));
+        }
+
+        @Test
+        public void testCompact_TwoDimensional() {
+            final ChunkedGridGraph flat = (ChunkedGridGraph) new GraphBuilder()
+                    .gridStorage(GraphBuilder.GridStorage.CHUNKED)
+                    .build(40, 40);
+            for (int y = 0; y < 16; y++) {
+                for (int x = 0; x < 40; x++) {
+                    flat.setTraversable(x, y, false);
+                }
+            }
+
+            assertEquals(3, flat.getAllocatedChunkCount());
+            assertFalse(flat.isTraversable(39, 15));
+            assertTrue(flat.isTraversable(39, 16));
+
+            flat.compact();
+
+            assertEquals(0, flat.getAllocatedChunkCount());
+            assertFalse(flat.isTraversable(20, 10));
+            assertTrue(flat.isTraversable(20, 16));
+        }
+
+        @Test
+        public void testGetNeighbors_ChunkBoundary() {
+            graph.setTraversable(16, 15, 15, false);
+
+            final List<INode> neighbors = graph.getNeighbors(graph.getNode(new double[]{15, 15, 15}));
+
+            assertEquals(5, neighbors.size());
+            assertTrue(neighbors.contains(graph.getNode(new double[]{15, 16, 15})));
+            assertTrue(neighbors.contains(graph.getNode(new double[]{15, 15, 16})));
+            assertFalse(neighbors.contains(graph.getNode(new double[]{16, 15, 15})));
+        }
+
+        @Test
+        public void testGetNeighbors_EdgeCase() {
+            final List<INode> neighbors = graph.getNeighbors(graph.getNode(new double[]{39, 39, 39}));
+
+            assertEquals(3, neighbors.size());
+        }
+    }
+}
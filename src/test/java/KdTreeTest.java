@@ -0,0 +1,118 @@
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.KdTree;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KdTreeTest {
+
+    private AbstractGridGraph grid;
+
+    @BeforeEach
+    public void setUp() {
+        grid = new GraphBuilder().build(40, 30, 20);
+
+        final Random random = new Random(7);
+        for (int i = 0; i < grid.getNodeCount() / 3; i++) {
+            grid.setTraversable(random.nextInt(grid.getNodeCount()), false);
+        }
+    }
+
+    @Test
+    public void testNearest() {
+        final KdTree tree = KdTree.from(grid);
+
+        assertEquals(grid.getNodeCount(), tree.getSize());
+        assertEquals(grid.getId(3, 4, 5), tree.nearest(new double[]{3.2, 3.9, 5.1}, null));
+        assertEquals(grid.getId(39, 29, 19), tree.nearest(new double[]{100, 100, 100}, null));
+    }
+
+    @Test
+    public void testNearest_Filter() {
+        final KdTree tree = KdTree.from(grid);
+        final Random random = new Random(11);
+
+        for (int i = 0; i < 200; i++) {
+            final double[] position = {random.nextDouble() * 50 - 5, random.nextDouble() * 40 - 5, random.nextDouble() * 30 - 5};
+            final int nearest = tree.nearest(position, grid::isTraversable);
+
+            assertTrue(grid.isTraversable(nearest));
+            assertEquals(bruteForce(position, grid::isTraversable)[0], distance(position, nearest), 1e-9);
+        }
+    }
+
+    @Test
+    public void testNearest_K() {
+        final KdTree tree = KdTree.from(grid);
+        final double[] position = {12.3, 7.7, 9.1};
+        final int[] nearest = new int[25];
+
+        assertEquals(25, tree.nearest(position, 25, nearest, grid::isTraversable));
+
+        final double[] expected = bruteForce(position, grid::isTraversable);
+        for (int i = 0; i < nearest.length; i++) {
+            assertTrue(grid.isTraversable(nearest[i]));
+            assertEquals(expected[i], distance(position, nearest[i]), 1e-9);
+        }
+    }
+
+    @Test
+    public void testRadius() {
+        final KdTree tree = KdTree.from(grid);
+        final double[] position = {20, 15, 10};
+        final int[] within = new int[grid.getNodeCount()];
+
+        final int count = tree.radius(position, 3.5, within, grid::isTraversable);
+
+        assertEquals(Arrays.stream(bruteForce(position, grid::isTraversable)).filter(d -> d <= 3.5).count(), count);
+        for (int i = 0; i < count; i++) {
+            assertTrue(distance(position, within[i]) <= 3.5);
+        }
+        assertEquals(count, tree.radius(position, 3.5, new int[1], grid::isTraversable));
+    }
+
+    @Test
+    public void testParallelBuild() {
+        final KdTree sequential = KdTree.from(grid);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final KdTree parallel;
+        try {
+            parallel = KdTree.from(grid, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        final Random random = new Random(13);
+        for (int i = 0; i < 200; i++) {
+            final double[] position = {random.nextDouble() * 40, random.nextDouble() * 30, random.nextDouble() * 20};
+
+            assertEquals(distance(position, sequential.nearest(position, grid::isTraversable)),
+                    distance(position, parallel.nearest(position, grid::isTraversable)), 1e-9);
+        }
+    }
+
+    private double distance(final double[] position, final int id) {
+        final double[] node = new double[3];
+        grid.getPosition(id, node);
+
+        return Math.sqrt((node[0] - position[0]) * (node[0] - position[0])
+                + (node[1] - position[1]) * (node[1] - position[1])
+                + (node[2] - position[2]) * (node[2] - position[2]));
+    }
+
+    private double[] bruteForce(final double[] position, final IntPredicate filter) {
+        return IntStream.range(0, grid.getNodeCount())
+                .filter(filter)
+                .mapToDouble(id -> distance(position, id))
+                .sorted()
+                .toArray();
+    }
+}
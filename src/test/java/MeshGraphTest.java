@@ -0,0 +1,331 @@
+import org.faya.sensei.INode;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.GraphGenerator;
+import org.faya.sensei.graph.MeshGraph;
+import org.faya.sensei.graph.MeshGraphFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeshGraphTest {
+
+    //  6----5----7
+    //  |  / |  / |
+    //  | /  | /  |
+    //  4----2----0
+    //  |  / |  / |
+    //  | /  | /  |
+    //  3----1----8
+
+    private static final float[] POSITIONS = {
+            1, 0, 0,
+            0, 0, 1,
+            0, 0, 0,
+            -1, 0, 1,
+            -1, 0, 0,
+            0, 0, -1,
+            -1, 0, -1,
+            1, 0, -1,
+            1, 0, 1
+    };
+
+    private static final int[] INDICES = {
+            3, 1, 2,
+            3, 2, 4,
+            1, 8, 0,
+            1, 0, 2,
+            4, 2, 5,
+            4, 5, 6,
+            2, 0, 7,
+            2, 7, 5
+    };
+
+    private MeshGraph graph;
+
+    @BeforeEach
+    public void setUp() {
+        graph = new GraphBuilder().build(POSITIONS, INDICES);
+    }
+
+    @Test
+    public void testGetNode() {
+        final INode node = graph.getNode(2);
+
+        assertArrayEquals(new double[]{0.0, 0.0, 0.0}, node.getPosition(), 1e-6);
+        assertSame(node, graph.getNode(2));
+        assertEquals(2, graph.getId(node));
+    }
+
+    @Test
+    public void testGetNode_OutOfBounds() {
+        assertNull(graph.getNode(9));
+        assertNull(graph.getNode(-1));
+    }
+
+    @Test
+    public void testGetNode_Position() {
+        final INode node = graph.getNode(new double[]{0.9, 0.0, -0.8});
+
+        assertEquals(graph.getNode(7), node);
+    }
+
+    @Test
+    public void testLocate() {
+        assertEquals(6, graph.locate(new double[]{0.9, 0.0, -0.8}));
+        assertEquals(1, graph.locate(new double[]{-0.9, 0.0, 0.2}));
+        assertEquals(2, graph.locate(new double[]{3.0, 5.0, 0.5}));
+        assertEquals(graph.getTriangleGraph().getNode(6), graph.getTriangleGraph().getNode(new double[]{0.9, 0.0, -0.8}));
+    }
+
+    @Test
+    public void testLocate_Hint() {
+        assertEquals(6, graph.locate(new double[]{0.9, 0.0, -0.8}, 7));
+        assertEquals(6, graph.locate(new double[]{0.9, 0.0, -0.8}, 6));
+        assertEquals(1, graph.locate(new double[]{-0.9, 0.0, 0.2}, 6));
+        assertEquals(2, graph.locate(new double[]{3.0, 5.0, 0.5}, 3));
+        assertEquals(0, graph.locate(new double[]{-0.1, 0.0, 0.8}, -1));
+
+        final MeshGraph.TriangleGraph triangles = graph.getTriangleGraph();
+        assertEquals(triangles.getNode(6), triangles.getNode(new double[]{0.9, 0.0, -0.8}, triangles.getNode(7)));
+    }
+
+    @Test
+    public void testLocate_Walk() {
+        final MeshGraph plane = plane(101);
+        final double[] position = {0.2, 0.0, 0.2};
+        int triangle = plane.locate(position);
+
+        // An agent crossing the plane diagonally in small steps.
+        for (int tick = 0; tick < 900; tick++) {
+            position[0] += 0.11;
+            position[2] += 0.07;
+            triangle = plane.locate(position, triangle);
+
+            final int x = (int) position[0], z = (int) position[2];
+            final double u = position[0] - x, v = position[2] - z;
+            if (Math.min(Math.min(u, v), Math.min(1.0 - u, 1.0 - v)) < 1e-3 || Math.abs(u + v - 1.0) < 1e-3) continue;
+            assertEquals((x + z * 100) * 2 + (u + v > 1.0 ? 1 : 0), triangle);
+        }
+    }
+
+    @Test
+    public void testLocate_Random() {
+        final MeshGraph plane = plane(301);
+        final Random random = new Random(42);
+        final double[] position = new double[3];
+
+        for (int i = 0; i < 4_000; i++) {
+            position[0] = random.nextDouble() * 300.0;
+            position[2] = random.nextDouble() * 300.0;
+            final int triangle = plane.locate(position);
+
+            // Every quad is split along its diagonal from (x, z + 1) to (x + 1, z).
+            final int x = (int) position[0], z = (int) position[2];
+            // Points on a shared edge may land on either side within float precision.
+            final double u = position[0] - x, v = position[2] - z;
+            if (Math.min(Math.min(u, v), Math.min(1.0 - u, 1.0 - v)) < 1e-3 || Math.abs(u + v - 1.0) < 1e-3) continue;
+            assertEquals((x + z * 300) * 2 + (u + v > 1.0 ? 1 : 0), triangle);
+        }
+    }
+
+    @Test
+    public void testRaycast() {
+        final MeshGraph plane = plane(5);
+        final double[] from = {0.2, 0.0, 0.3}, to = {3.7, 0.0, 3.1};
+        final double[] hit = new double[3];
+
+        assertEquals(plane.locate(to), plane.raycast(plane.locate(from), from, to, hit));
+        assertArrayEquals(to, hit, 1e-9);
+
+        // Along the diagonal through the grid vertices.
+        assertTrue(plane.hasLineOfSight(new double[]{0.5, 0.0, 0.5}, new double[]{3.5, 0.0, 3.5}));
+        assertTrue(plane.hasLineOfSight(to, from));
+    }
+
+    @Test
+    public void testRaycast_Border() {
+        final MeshGraph plane = plane(5);
+        final double[] from = {0.5, 0.0, 0.5}, to = {6.0, 0.0, 0.5};
+        final double[] hit = new double[3];
+
+        final int triangle = plane.raycast(plane.locate(from), from, to, hit);
+
+        assertTrue(triangle < 0);
+        assertEquals(plane.locate(new double[]{3.9, 0.0, 0.5}), -(triangle + 1));
+        assertArrayEquals(new double[]{4.0, 0.0, 0.5}, hit, 1e-6);
+        assertFalse(plane.hasLineOfSight(from, to));
+    }
+
+    @Test
+    public void testRaycast_OffMesh() {
+        final MeshGraph plane = plane(2);
+        final double[] from = {-3.0, 0.0, 0.5}, to = {-2.0, 0.0, 0.5};
+
+        assertThrows(IllegalArgumentException.class, () -> plane.raycast(-1, from, to, null));
+        assertThrows(IllegalArgumentException.class, () -> plane.raycast(plane.getTriangleCount(), from, to, null));
+        assertFalse(plane.hasLineOfSight(from, to));
+        assertFalse(plane.hasLineOfSight(from, new double[]{0.5, 0.0, 0.5}));
+    }
+
+    @Test
+    public void testRaycast_Hole() {
+        // A 3 by 3 plane without its middle quad.
+        final MeshGraph full = plane(4);
+        final float[] positions = new float[full.getVertexCount() * 3];
+        final double[] position = new double[3];
+        for (int vertex = 0; vertex < full.getVertexCount(); vertex++) {
+            full.getPosition(vertex, position);
+            positions[vertex * 3] = (float) position[0];
+            positions[vertex * 3 + 2] = (float) position[2];
+        }
+        final int[] holed = new int[(full.getTriangleCount() - 2) * 3];
+        for (int triangle = 0, i = 0; triangle < full.getTriangleCount(); triangle++) {
+            if (triangle / 2 == 4) continue;
+            for (int corner = 0; corner < 3; corner++) holed[i++] = full.getTriangleVertex(triangle, corner);
+        }
+        final MeshGraph plane = new GraphBuilder().build(positions, holed);
+        final double[] hit = new double[3];
+
+        final int triangle = plane.raycast(plane.locate(new double[]{0.5, 0.0, 1.5}),
+                new double[]{0.5, 0.0, 1.5}, new double[]{2.5, 0.0, 1.5}, hit);
+
+        assertTrue(triangle < 0);
+        assertArrayEquals(new double[]{1.0, 0.0, 1.5}, hit, 1e-6);
+        assertFalse(plane.hasLineOfSight(new double[]{0.5, 0.0, 0.5}, new double[]{2.5, 0.0, 2.5}));
+        assertTrue(plane.hasLineOfSight(new double[]{0.5, 0.0, 0.5}, new double[]{2.5, 0.0, 0.7}));
+        assertTrue(plane.hasLineOfSight(new double[]{0.5, 0.0, 2.5}, new double[]{0.5, 0.0, 0.5}));
+    }
+
+    @Test
+    public void testGetNeighbors() {
+        final List<INode> neighbors = graph.getNeighbors(graph.getNode(2));
+
+        assertEquals(6, neighbors.size());
+        for (final int id : new int[]{0, 1, 3, 4, 5, 7}) {
+            assertTrue(neighbors.contains(graph.getNode(id)));
+        }
+    }
+
+    @Test
+    public void testGetNeighbors_EdgeCase() {
+        final List<INode> neighbors = graph.getNeighbors(graph.getNode(8));
+
+        assertEquals(2, neighbors.size());
+        assertTrue(neighbors.contains(graph.getNode(0)));
+        assertTrue(neighbors.contains(graph.getNode(1)));
+    }
+
+    @Test
+    public void testGetNeighbors_Costs() {
+        final int[] neighbors = new int[graph.getMaxDegree()];
+        final double[] costs = new double[neighbors.length];
+        final int count = graph.getNeighbors(2, neighbors, costs);
+
+        assertEquals(6, count);
+        for (int i = 0; i < count; i++) {
+            final double expected = neighbors[i] == 3 || neighbors[i] == 7 ? Math.sqrt(2) : 1;
+            assertEquals(expected, costs[i], 1e-6);
+        }
+    }
+
+    @Test
+    public void testTriangleGraph() {
+        final MeshGraph.TriangleGraph triangles = graph.getTriangleGraph();
+
+        assertEquals(8, triangles.getNodeCount());
+        assertEquals(2, triangles.getNeighbors(triangles.getNode(0)).size());
+        assertEquals(3, triangles.getNeighbors(triangles.getNode(3)).size());
+        assertEquals(1, graph.getTriangleNeighbor(0, 2));
+        assertEquals(-1, graph.getTriangleNeighbor(0, 0));
+        assertEquals(0, graph.getTriangleNeighbor(1, 0));
+    }
+
+    @Test
+    public void testParallelBuild() {
+        // A 200 x 200 quad plane, large enough to split across several tasks.
+        final MeshGraph sequential = plane(201);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        final MeshGraph parallel;
+        try {
+            parallel = new GraphGenerator().builder(new GraphBuilder().parallel(pool)).plane(200, 200);
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int t = 0; t < sequential.getTriangleCount(); t++) {
+            for (int edge = 0; edge < 3; edge++) {
+                assertEquals(sequential.getTriangleNeighbor(t, edge), parallel.getTriangleNeighbor(t, edge));
+            }
+        }
+
+        final int[] expected = new int[sequential.getMaxDegree()], actual = new int[expected.length];
+        final double[] costs = new double[expected.length];
+        assertEquals(sequential.getMaxDegree(), parallel.getMaxDegree());
+        for (int vertex = 0; vertex < sequential.getNodeCount(); vertex++) {
+            final int count = sequential.getNeighbors(vertex, expected, costs);
+
+            assertEquals(count, parallel.getNeighbors(vertex, actual, costs));
+            Arrays.sort(expected, 0, count);
+            Arrays.sort(actual, 0, count);
+            assertArrayEquals(Arrays.copyOf(expected, count), Arrays.copyOf(actual, count));
+        }
+    }
+
+    @Test
+    public void testMeshGraphFile() throws IOException {
+        final Path file = Files.createTempFile("navmesh", ".bin");
+
+        try {
+            MeshGraphFile.write(graph, file);
+            final MeshGraph mapped = MeshGraphFile.map(file);
+
+            assertEquals(graph.getVertexCount(), mapped.getVertexCount());
+            assertEquals(graph.getTriangleCount(), mapped.getTriangleCount());
+            assertEquals(graph.getMaxDegree(), mapped.getMaxDegree());
+            for (int vertex = 0; vertex < graph.getVertexCount(); vertex++) {
+                assertArrayEquals(graph.getNode(vertex).getPosition(), mapped.getNode(vertex).getPosition());
+                assertEquals(graph.getNeighbors(graph.getNode(vertex)).size(),
+                        mapped.getNeighbors(mapped.getNode(vertex)).size());
+            }
+            for (int t = 0; t < graph.getTriangleCount(); t++) {
+                for (int edge = 0; edge < 3; edge++) {
+                    assertEquals(graph.getTriangleVertex(t, edge), mapped.getTriangleVertex(t, edge));
+                    assertEquals(graph.getTriangleNeighbor(t, edge), mapped.getTriangleNeighbor(t, edge));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testMeshGraphFile_Invalid() throws IOException {
+        final Path file = Files.createTempFile("navmesh", ".bin");
+
+        try {
+            Files.write(file, new byte[64]);
+
+            assertThrows(IOException.class, () -> MeshGraphFile.map(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Builds a flat plane of unit quads.
+     *
+     * @param size The number of vertices along each side.
+     */
+    private static MeshGraph plane(final int size) {
+        return new GraphGenerator().plane(size - 1, size - 1);
+    }
+}
@@ -0,0 +1,51 @@
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.MeshGraph;
+import org.faya.sensei.graph.MeshLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.assimp.AIScene;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeshLoaderTest {
+
+    private MeshLoader meshLoader;
+
+    @BeforeEach
+    public void setUp() {
+        meshLoader = new MeshLoader();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        meshLoader.close();
+    }
+
+    @Test
+    public void testLoadResource() {
+        final AIScene scene = meshLoader.loadResource("plane.glb");
+        final MeshGraph graph = new GraphBuilder().build(MeshLoader.getMesh(scene, 0));
+
+        assertEquals(9, graph.getVertexCount());
+        assertEquals(8, graph.getTriangleCount());
+    }
+
+    @Test
+    public void testLoad_Cached() throws IOException {
+        final AIScene scene = meshLoader.loadResource("plane.glb");
+
+        try (final InputStream inputStream = getClass().getClassLoader().getResourceAsStream("plane.glb")) {
+            assertNotNull(inputStream);
+            assertSame(scene, meshLoader.load(inputStream, "glb"));
+        }
+        assertEquals(1, meshLoader.getSceneCount());
+
+        meshLoader.close();
+
+        assertEquals(0, meshLoader.getSceneCount());
+    }
+}
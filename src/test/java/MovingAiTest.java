@@ -0,0 +1,91 @@
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.MovingAiMap;
+import org.faya.sensei.graph.MovingAiScenario;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MovingAiTest {
+
+    private static final String MAP = """
+            type octile
+            height 4
+            width 5
+            map
+            .....
+            .@@@.
+            .....
+            T....
+            """;
+
+    private static final String SCENARIO = """
+            version 1
+            0\ttest.map\t5\t4\t0\t0\t4\t2\t6.00000000
+            0\ttest.map\t5\t4\t1\t3\t4\t2\t3.41421356
+            """;
+
+    @Test
+    public void testReadMap() throws IOException {
+        final AbstractGridGraph grid = MovingAiMap.read(reader(MAP), new GraphBuilder());
+
+        assertEquals(5, grid.getWidth());
+        assertEquals(4, grid.getHeight());
+        assertTrue(grid.isTraversable(0, 1));
+        assertFalse(grid.isTraversable(1, 1));
+        assertFalse(grid.isTraversable(3, 1));
+        assertTrue(grid.isTraversable(4, 1));
+        assertFalse(grid.isTraversable(0, 3));
+    }
+
+    @Test
+    public void testReadMap_Malformed() {
+        assertThrows(IOException.class, () -> MovingAiMap.read(reader("type octile\nheight 4\nmap\n"), new GraphBuilder()));
+        assertThrows(IOException.class, () -> MovingAiMap.read(reader("type octile\nheight 2\nwidth 2\n"), new GraphBuilder()));
+        assertThrows(IOException.class, () -> MovingAiMap.read(reader("height 2\nwidth 2\nmap\n..\n."), new GraphBuilder()));
+    }
+
+    @Test
+    public void testReadScenario() throws IOException {
+        final List<MovingAiScenario> scenarios = MovingAiScenario.read(reader(SCENARIO));
+
+        assertEquals(2, scenarios.size());
+        assertEquals(new MovingAiScenario(0, "test.map", 5, 4, 1, 3, 4, 2, 3.41421356), scenarios.get(1));
+        assertThrows(IOException.class, () -> MovingAiScenario.read(reader("version 1\n0\ttest.map\t5\t4\n")));
+    }
+
+    @Test
+    public void testOptimalLength() throws IOException {
+        final AbstractGridGraph grid = MovingAiMap.read(reader(MAP), new GraphBuilder());
+        final AStarPathfinder pathfinder = new AStarPathfinder(grid.getOctileGraph(), Heuristic.OCTILE);
+        final int[] path = new int[grid.getNodeCount()];
+
+        for (final MovingAiScenario scenario : MovingAiScenario.read(reader(SCENARIO))) {
+            final int count = pathfinder.findPath(scenario.getStart(grid), scenario.getGoal(grid), path);
+
+            assertEquals(scenario.optimalLength(), length(grid, path, count), 1e-6);
+        }
+    }
+
+    private static BufferedReader reader(final String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+
+    private static double length(final AbstractGridGraph grid, final int[] path, final int count) {
+        double length = 0.0;
+        for (int i = 1; i < count; i++) {
+            final int dx = path[i] % grid.getWidth() - path[i - 1] % grid.getWidth();
+            final int dy = path[i] / grid.getWidth() - path[i - 1] / grid.getWidth();
+            length += Math.sqrt(dx * dx + dy * dy);
+        }
+
+        return length;
+    }
+}
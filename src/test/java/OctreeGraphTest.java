@@ -0,0 +1,115 @@
+import org.faya.sensei.INode;
+import org.faya.sensei.IPathfinderObserver;
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.graph.OctreeGraph;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OctreeGraphTest {
+
+    private AbstractGridGraph grid;
+
+    @BeforeEach
+    public void setUp() {
+        grid = new GraphBuilder().build(32, 32, 32);
+    }
+
+    @Test
+    public void testOpenVolume() {
+        final OctreeGraph octree = OctreeGraph.from(grid);
+
+        assertEquals(1, octree.getNodeCount());
+        assertEquals(32, octree.getSize(0));
+        assertArrayEquals(new double[]{15.5, 15.5, 15.5}, octree.getNode(0).getPosition());
+    }
+
+    @Test
+    public void testSingleObstacle() {
+        final AbstractGridGraph small = new GraphBuilder().build(8, 8, 8);
+        small.setTraversable(0, 0, 0, false);
+
+        final OctreeGraph octree = OctreeGraph.from(small);
+
+        assertEquals(21, octree.getNodeCount());
+        assertNull(octree.getNode(new double[]{0, 0, 0}));
+        assertEquals(1, octree.getSize(octree.locate(1, 0, 0)));
+        assertEquals(4, octree.getSize(octree.locate(7, 7, 7)));
+    }
+
+    @Test
+    public void testNonCubicGrid() {
+        final OctreeGraph octree = OctreeGraph.from(new GraphBuilder().build(12, 4, 4));
+
+        assertEquals(3, octree.getNodeCount());
+        assertEquals(-1, octree.locate(12, 0, 0));
+
+        final List<INode> neighbors = octree.getNeighbors(octree.getNode(octree.locate(5, 0, 0)));
+
+        assertEquals(2, neighbors.size());
+    }
+
+    @Test
+    public void testGetNeighbors_Symmetric() {
+        grid.setTraversable(9, 13, 21, false);
+        grid.setTraversable(20, 3, 7, false);
+
+        final OctreeGraph octree = OctreeGraph.from(grid);
+
+        for (int id = 0; id < octree.getNodeCount(); id++) {
+            final INode node = octree.getNode(id);
+            for (final INode neighbor : octree.getNeighbors(node)) {
+                assertTrue(octree.getNeighbors(neighbor).contains(node));
+            }
+        }
+    }
+
+    @Test
+    public void testFindPath_FewerExpansions() {
+        // A wall across the volume with a single opening in a corner.
+        for (int x = 0; x < 32; x++) {
+            for (int y = 0; y < 32; y++) {
+                if (x < 2 && y < 2) continue;
+                grid.setTraversable(x, y, 16, false);
+            }
+        }
+
+        final OctreeGraph octree = OctreeGraph.from(grid);
+
+        final int[] gridExpansions = new int[1];
+        final AStarPathfinder gridPathfinder = new AStarPathfinder(grid, Heuristic.EUCLIDEAN);
+        gridPathfinder.registerObserver(counter(gridExpansions));
+        final List<INode> gridPath = gridPathfinder.findPath(
+                grid.getNode(new double[]{31, 31, 0}), grid.getNode(new double[]{31, 31, 31}));
+
+        final int[] octreeExpansions = new int[1];
+        final AStarPathfinder octreePathfinder = new AStarPathfinder(octree, Heuristic.EUCLIDEAN);
+        octreePathfinder.registerObserver(counter(octreeExpansions));
+        final List<INode> octreePath = octreePathfinder.findPath(
+                octree.getNode(new double[]{31, 31, 0}), octree.getNode(new double[]{31, 31, 31}));
+
+        assertFalse(gridPath.isEmpty());
+        assertFalse(octreePath.isEmpty());
+        assertTrue(octreeExpansions[0] * 10 < gridExpansions[0],
+                "octree expanded " + octreeExpansions[0] + " nodes, grid expanded " + gridExpansions[0]);
+    }
+
+    private static IPathfinderObserver counter(final int[] count) {
+        return new IPathfinderObserver() {
+
+            @Override
+            public void onNode(final INode node) {
+                count[0]++;
+            }
+
+            @Override
+            public void onFinish(final List<INode> path) { }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.pathfinding.AStarPathfinder;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.faya.sensei.pathfinding.Histogram;
+import org.faya.sensei.pathfinding.PathfinderMetrics;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathfinderMetricsTest {
+
+    @Test
+    public void testHistogram() {
+        final Histogram histogram = new Histogram();
+        for (int value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        final Histogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.count());
+        assertEquals(50_000.5, snapshot.mean(), 1e-9);
+        assertEquals(50_000, snapshot.p50(), 50_000 * 0.035);
+        assertEquals(99_000, snapshot.p99(), 99_000 * 0.035);
+        assertEquals(99_900, snapshot.p999(), 99_900 * 0.035);
+        assertEquals(100_000, snapshot.max());
+        assertTrue(histogram.getValueAtPercentile(100.0) <= 100_000);
+    }
+
+    @Test
+    public void testHistogram_Small() {
+        final Histogram histogram = new Histogram();
+
+        assertEquals(0, histogram.snapshot().p50());
+
+        histogram.record(-5);
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(0, histogram.getValueAtPercentile(10.0));
+        assertEquals(3, histogram.getValueAtPercentile(50.0));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100.0));
+
+        histogram.reset();
+
+        assertEquals(0, histogram.snapshot().count());
+    }
+
+    @Test
+    public void testHistogram_Concurrent() {
+        final Histogram histogram = new Histogram();
+
+        IntStream.range(0, 400_000).parallel().forEach(i -> histogram.record(i % 1000));
+
+        assertEquals(400_000, histogram.snapshot().count());
+        assertEquals(999, histogram.snapshot().max());
+    }
+
+    @Test
+    public void testRecord() {
+        final AbstractGridGraph graph = new GraphBuilder().build(16, 16);
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        final PathfinderMetrics metrics = new PathfinderMetrics();
+        pathfinder.setMetrics(metrics);
+
+        final int[] path = new int[256];
+        final int length = pathfinder.findPath(0, graph.getNodeCount() - 1, path);
+        final int expanded = pathfinder.getExpandedCount();
+        graph.setTraversable(1, 0, false);
+        graph.setTraversable(0, 1, false);
+        pathfinder.findPath(graph.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+
+        final PathfinderMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertEquals(2, snapshot.queries());
+        assertEquals(1, snapshot.found());
+        assertEquals(31, length);
+        assertEquals(length, snapshot.pathLength());
+        assertEquals(expanded + 1, snapshot.expanded());
+        assertTrue(snapshot.pushes() >= snapshot.expanded());
+        assertEquals(2, snapshot.latency().count());
+        assertTrue(snapshot.latency().max() > 0);
+        assertEquals(expanded, snapshot.expansions().max());
+    }
+
+    @Test
+    public void testRecord_ForeignNode() {
+        final AbstractGridGraph graph = new GraphBuilder().build(16, 16);
+        final AbstractGridGraph other = new GraphBuilder().build(16, 16);
+        final AStarPathfinder pathfinder = new AStarPathfinder(graph, Heuristic.MANHATTAN);
+        final PathfinderMetrics metrics = new PathfinderMetrics();
+        pathfinder.setMetrics(metrics);
+
+        pathfinder.findPath(0, graph.getNodeCount() - 1, new int[256]);
+        final long expanded = metrics.getExpanded();
+        pathfinder.findPath(other.getNode(0), graph.getNode(graph.getNodeCount() - 1));
+
+        assertEquals(2, metrics.getQueries());
+        assertEquals(1, metrics.getFound());
+        assertEquals(expanded, metrics.getExpanded());
+        assertEquals(0, pathfinder.getExpandedCount());
+    }
+
+    @Test
+    public void testRegister() throws JMException {
+        final PathfinderMetrics metrics = new PathfinderMetrics();
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        metrics.record(1_000, 10, 12, 3, 5);
+
+        final ObjectName name = metrics.register("test map");
+        try {
+            assertEquals(1L, server.getAttribute(name, "Queries"));
+            assertEquals(10L, server.getAttribute(name, "Expanded"));
+            assertEquals(1_000L, server.getAttribute(name, "LatencyP99"));
+
+            server.invoke(name, "reset", new Object[0], new String[0]);
+
+            assertEquals(0L, server.getAttribute(name, "Queries"));
+        } finally {
+            PathfinderMetrics.unregister("test map");
+        }
+
+        assertFalse(server.isRegistered(name));
+    }
+}
@@ -0,0 +1,113 @@
+import org.faya.sensei.graph.AbstractGridGraph;
+import org.faya.sensei.graph.GraphBuilder;
+import org.faya.sensei.pathfinding.Heuristic;
+import org.faya.sensei.pathfinding.LazyThetaStarPathfinder;
+import org.faya.sensei.pathfinding.ThetaStarPathfinder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThetaStarPathfinderTest {
+
+    private AbstractGridGraph graph;
+
+    @BeforeEach
+    public void setUp() {
+        graph = new GraphBuilder().build(8, 8);
+    }
+
+    @Test
+    public void testFindPath() {
+        final int[] path = new int[64];
+
+        for (final ThetaStarPathfinder pathfinder : pathfinders(graph)) {
+            assertEquals(2, pathfinder.findPath(graph.getId(0, 0, 0), graph.getId(7, 3, 0), path));
+            assertEquals(graph.getId(0, 0, 0), path[0]);
+            assertEquals(graph.getId(7, 3, 0), path[1]);
+        }
+    }
+
+    @Test
+    public void testFindPath_Wall() {
+        // • • • • • • • G
+        // • • • • • • • •
+        // • • • • • • • •
+        // • • • X • • • •
+        // • • • X • • • •
+        // • • • X • • • •
+        // • • • X • • • •
+        // S • • X • • • •
+
+        for (int y = 0; y < 5; y++) graph.setTraversable(3, y, false);
+
+        final int[] path = new int[64];
+        for (final ThetaStarPathfinder pathfinder : pathfinders(graph)) {
+            final int count = pathfinder.findPath(graph.getId(0, 0, 0), graph.getId(7, 7, 0), path);
+
+            assertEquals(3, count);
+            assertEquals(graph.getId(2, 5, 0), path[1]);
+            assertSeen(graph, path, count);
+        }
+    }
+
+    @Test
+    public void testFindPath_EmptyPath() {
+        for (int y = 0; y < 8; y++) graph.setTraversable(3, y, false);
+
+        final int[] path = new int[64];
+        for (final ThetaStarPathfinder pathfinder : pathfinders(graph)) {
+            assertEquals(0, pathfinder.findPath(graph.getId(0, 0, 0), graph.getId(7, 7, 0), path));
+        }
+    }
+
+    @Test
+    public void testFindPath_Random() {
+        final AbstractGridGraph grid = new GraphBuilder().build(64, 64);
+        final Random random = new Random(1);
+        for (int id = 0; id < grid.getNodeCount(); id++) {
+            if (random.nextInt(5) == 0) grid.setTraversable(id, false);
+        }
+        grid.setTraversable(0, true);
+        grid.setTraversable(grid.getNodeCount() - 1, true);
+
+        final ThetaStarPathfinder[] pathfinders = pathfinders(grid);
+        final int[] eager = new int[grid.getNodeCount()];
+        final int[] lazy = new int[grid.getNodeCount()];
+        final int eagerCount = pathfinders[0].findPath(0, grid.getNodeCount() - 1, eager);
+        final int lazyCount = pathfinders[1].findPath(0, grid.getNodeCount() - 1, lazy);
+
+        assertTrue(eagerCount > 0);
+        assertTrue(lazyCount > 0);
+        assertSeen(grid, eager, eagerCount);
+        assertSeen(grid, lazy, lazyCount);
+        assertEquals(length(grid, eager, eagerCount), length(grid, lazy, lazyCount), 0.05 * length(grid, eager, eagerCount));
+    }
+
+    private static ThetaStarPathfinder[] pathfinders(final AbstractGridGraph graph) {
+        return new ThetaStarPathfinder[]{
+                new ThetaStarPathfinder(graph, Heuristic.EUCLIDEAN),
+                new LazyThetaStarPathfinder(graph, Heuristic.EUCLIDEAN)
+        };
+    }
+
+    private static void assertSeen(final AbstractGridGraph graph, final int[] path, final int count) {
+        for (int i = 1; i < count; i++) {
+            assertTrue(graph.hasLineOfSight(path[i - 1], path[i]));
+        }
+    }
+
+    private static double length(final AbstractGridGraph graph, final int[] path, final int count) {
+        final double[] a = new double[2], b = new double[2];
+        double length = 0.0;
+        for (int i = 1; i < count; i++) {
+            graph.getPosition(path[i - 1], a);
+            graph.getPosition(path[i], b);
+            length += Math.hypot(a[0] - b[0], a[1] - b[1]);
+        }
+
+        return length;
+    }
+}